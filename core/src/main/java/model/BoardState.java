@@ -0,0 +1,62 @@
+package model;
+
+/**
+ * Immutable state of the board backed by its packed form, see {@link PackedState}.
+ * Carries no JavaFX or listener state, so solvers can create and keep as many of them as needed.
+ * @param packed packed state.
+ */
+public record BoardState(long packed) {
+    /**
+     * {@return the start state, greens in the top row and reds in the bottom row}
+     */
+    public static BoardState start() {
+        return new PuzzleState().toBoardState();
+    }
+
+    /**
+     * {@return state with the pieces at the given positions}
+     * @param positions positions of the pieces, greens first.
+     */
+    public static BoardState of(Position... positions) {
+        return new PuzzleState(positions).toBoardState();
+    }
+
+    /**
+     * {@return position of the piece with the given index}
+     * @param index index of piece [0-5].
+     */
+    public Position position(int index) {
+        return PackedState.position(PackedState.cell(packed, index));
+    }
+
+    /**
+     * {@return true if greens are at the bottom and reds are at the top row}
+     */
+    public boolean isSolved() {
+        return PackedState.isSolved(packed);
+    }
+
+    /**
+     * Method for writing every legal move into a buffer, see {@link PuzzleState#getLegalMoves(int[])}.
+     * @param moves buffer with room for at least {@link PuzzleState#MAX_LEGAL_MOVES} moves.
+     * @return number of moves written.
+     */
+    public int legalMoves(int[] moves) {
+        return PuzzleState.getLegalMoves(packed, moves);
+    }
+
+    /**
+     * {@return the state reached by making an encoded move, see {@link PuzzleState#encodeMove}}
+     * @param move encoded move.
+     */
+    public BoardState apply(int move) {
+        var index = PuzzleState.pieceOfMove(move);
+        var to = PackedState.neighbour(PackedState.cell(packed, index), move & 3);
+        return new BoardState(PackedState.withCell(packed, index, to));
+    }
+
+    @Override
+    public String toString() {
+        return new PuzzleState(packed).toString();
+    }
+}
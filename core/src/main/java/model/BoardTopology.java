@@ -0,0 +1,479 @@
+package model;
+
+import puzzle.TwoPhaseMoveState.TwoPhaseMove;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.SplittableRandom;
+
+/**
+ * Graph of the cells of a board.
+ * Cells are numbered row by row, and the cell reached from every cell in every {@link Direction} is
+ * precomputed into a transition table, so move generation is a table lookup instead of coordinate
+ * checks. The topology also fixes the pieces: greens start on the cells marked {@code G} and have to
+ * reach the last row, reds start on the cells marked {@code R} and have to reach the first row.
+ *
+ * <p>Symmetries of the board are found when the topology is created: every flip or rotation of the
+ * grid that maps the cells onto themselves and the target rows onto the target rows, possibly swapping
+ * the colours. Symmetry 0 is always the identity.
+ */
+public final class BoardTopology {
+    /**
+     * Value used for "no cell".
+     */
+    public static final int NONE = -1;
+    /**
+     * Largest supported number of cells, so the occupied cells fit in a {@code long} bitmask.
+     */
+    public static final int MAX_CELLS = Long.SIZE;
+
+    private static final Direction[] DIRECTIONS = Direction.values();
+    private static final int DIRECTION_COUNT = DIRECTIONS.length;
+    private static final Position[] DIRECTION_CHANGES = new Position[DIRECTION_COUNT];
+    private static final long ZOBRIST_SEED = 0x5A0B_2157L;
+
+    static {
+        for (var direction : DIRECTIONS) {
+            DIRECTION_CHANGES[direction.ordinal()] = new Position(direction.getRowChange(), direction.getColChange());
+        }
+    }
+
+    private static final BoardTopology STANDARD = grid(
+            "GGG",
+            ".o.",
+            "oo.",
+            ".o.",
+            "RRR"
+    );
+
+    private final int rowCount;
+    private final int columnCount;
+    private final Position[] cells;
+    private final int[] cellIndex;
+    private final int[] transitions;
+    private final int[] startCells;
+    private final int greenCount;
+    private final long greenTarget;
+    private final long redTarget;
+    private final int bitsPerCell;
+    private final long[][] shiftSources;
+    private final int[][] shiftDistances;
+    private final int[][] symmetryCells;
+    private final boolean[] symmetrySwapsColours;
+    private final int[][] symmetryDirections;
+    private final int[][] symmetryProducts;
+    private final int[] symmetryInverses;
+    private final long[] zobristKeys;
+
+    private BoardTopology(String[] rows) {
+        if (rows.length == 0) {
+            throw new IllegalArgumentException("Board has no rows");
+        }
+        rowCount = rows.length;
+        columnCount = Arrays.stream(rows).mapToInt(String::length).max().orElse(0);
+        cellIndex = new int[rowCount * columnCount];
+        Arrays.fill(cellIndex, NONE);
+        var positions = new ArrayList<Position>();
+        var greens = new ArrayList<Integer>();
+        var reds = new ArrayList<Integer>();
+        for (var row = 0; row < rowCount; row++) {
+            for (var column = 0; column < rows[row].length(); column++) {
+                var mark = rows[row].charAt(column);
+                if (mark == '.') {
+                    continue;
+                }
+                var cell = positions.size();
+                switch (mark) {
+                    case 'G' -> greens.add(cell);
+                    case 'R' -> reds.add(cell);
+                    case 'o' -> { }
+                    default -> throw new IllegalArgumentException(String.format("Unknown cell mark: %s", mark));
+                }
+                cellIndex[row * columnCount + column] = cell;
+                positions.add(new Position(row, column));
+            }
+        }
+        if (positions.size() > MAX_CELLS) {
+            throw new IllegalArgumentException(String.format("Board has more than %d cells", MAX_CELLS));
+        }
+        cells = positions.toArray(Position[]::new);
+        greenCount = greens.size();
+        startCells = new int[greens.size() + reds.size()];
+        for (var piece = 0; piece < startCells.length; piece++) {
+            startCells[piece] = piece < greenCount ? greens.get(piece) : reds.get(piece - greenCount);
+        }
+
+        transitions = new int[cells.length * DIRECTION_COUNT];
+        for (var cell = 0; cell < cells.length; cell++) {
+            for (var direction : DIRECTIONS) {
+                transitions[cell * DIRECTION_COUNT + direction.ordinal()] = cellOf(
+                        cells[cell].row() + direction.getRowChange(),
+                        cells[cell].column() + direction.getColChange()
+                );
+            }
+        }
+        greenTarget = cellMaskOfRow(rowCount - 1);
+        redTarget = cellMaskOfRow(0);
+        bitsPerCell = Math.max(1, Integer.SIZE - Integer.numberOfLeadingZeros(cells.length - 1));
+        shiftSources = new long[DIRECTION_COUNT][];
+        shiftDistances = new int[DIRECTION_COUNT][];
+        for (var direction = 0; direction < DIRECTION_COUNT; direction++) {
+            groupByShift(direction);
+        }
+        var random = new SplittableRandom(ZOBRIST_SEED);
+        zobristKeys = new long[startCells.length * cells.length];
+        for (var key = 0; key < zobristKeys.length; key++) {
+            zobristKeys[key] = random.nextLong();
+        }
+
+        var permutations = new ArrayList<int[]>();
+        var swaps = new ArrayList<Boolean>();
+        findSymmetries(permutations, swaps);
+        symmetryCells = permutations.toArray(int[][]::new);
+        symmetrySwapsColours = new boolean[swaps.size()];
+        for (var symmetry = 0; symmetry < swaps.size(); symmetry++) {
+            symmetrySwapsColours[symmetry] = swaps.get(symmetry);
+        }
+        symmetryDirections = new int[symmetryCells.length][];
+        symmetryProducts = new int[symmetryCells.length][symmetryCells.length];
+        symmetryInverses = new int[symmetryCells.length];
+        for (var symmetry = 0; symmetry < symmetryCells.length; symmetry++) {
+            symmetryDirections[symmetry] = symmetryDirections(symmetryCells[symmetry]);
+            for (var other = 0; other < symmetryCells.length; other++) {
+                symmetryProducts[symmetry][other] = findSymmetry(
+                        compose(symmetryCells[symmetry], symmetryCells[other]),
+                        symmetrySwapsColours[symmetry] != symmetrySwapsColours[other]
+                );
+                if (symmetryProducts[symmetry][other] == 0) {
+                    symmetryInverses[symmetry] = other;
+                }
+            }
+        }
+    }
+
+    /**
+     * {@return the ten-cell board of the game}
+     */
+    public static BoardTopology standard() {
+        return STANDARD;
+    }
+
+    /**
+     * Method for creating a board from a picture of its rows.
+     * Every character is a column: {@code .} is a hole, {@code o} is an empty cell, {@code G} and
+     * {@code R} are cells holding a green or a red piece at the start. Cells next to each other in a
+     * row or a column are connected.
+     * @param rows rows of the board from top to bottom.
+     * @return new BoardTopology.
+     */
+    public static BoardTopology grid(String... rows) {
+        return new BoardTopology(rows);
+    }
+
+    /**
+     * {@return the number of rows of the grid}
+     */
+    public int rowCount() {
+        return rowCount;
+    }
+
+    /**
+     * {@return the number of columns of the grid}
+     */
+    public int columnCount() {
+        return columnCount;
+    }
+
+    /**
+     * {@return the number of cells}
+     */
+    public int cellCount() {
+        return cells.length;
+    }
+
+    /**
+     * {@return the number of pieces, greens first}
+     */
+    public int pieceCount() {
+        return startCells.length;
+    }
+
+    /**
+     * {@return the number of green pieces}
+     */
+    public int greenCount() {
+        return greenCount;
+    }
+
+    /**
+     * {@return the index of the cell at the given coordinates or {@link #NONE} if it is not on the board}
+     * @param row row of the cell.
+     * @param column column of the cell.
+     */
+    public int cellOf(int row, int column) {
+        if (row < 0 || row >= rowCount || column < 0 || column >= columnCount) {
+            return NONE;
+        }
+        return cellIndex[row * columnCount + column];
+    }
+
+    /**
+     * {@return the index of the cell of the given position or {@link #NONE} if it is not on the board}
+     * @param position position on the board.
+     */
+    public int cellOf(Position position) {
+        return cellOf(position.row(), position.column());
+    }
+
+    /**
+     * {@return the position of the given cell}
+     * @param cell index of the cell.
+     */
+    public Position position(int cell) {
+        return cells[cell];
+    }
+
+    /**
+     * {@return the cell reached from {@code cell} by stepping to {@code direction} or {@link #NONE}}
+     * @param cell index of the cell.
+     * @param direction ordinal of the direction.
+     */
+    public int neighbour(int cell, int direction) {
+        return transitions[cell * DIRECTION_COUNT + direction];
+    }
+
+    /**
+     * Method for finding every piece that can step to {@code direction}.
+     * Cells whose neighbour in a direction is the same number of cells away share one shift, so the
+     * empty neighbours of a whole group are found with one shift of the occupancy mask.
+     * @param occupied bitmask of the occupied cells.
+     * @param direction ordinal of the direction.
+     * @return bitmask of the occupied cells whose neighbour in {@code direction} is empty.
+     */
+    public long movableCells(long occupied, int direction) {
+        var sources = shiftSources[direction];
+        var distances = shiftDistances[direction];
+        var movable = 0L;
+        for (var group = 0; group < sources.length; group++) {
+            var distance = distances[group];
+            var from = occupied & sources[group];
+            var free = (distance > 0 ? from << distance : from >>> -distance) & ~occupied;
+            movable |= distance > 0 ? free >>> distance : free << -distance;
+        }
+        return movable;
+    }
+
+    /**
+     * {@return the cell of the given piece at the start of the game}
+     * @param piece index of the piece.
+     */
+    public int startCell(int piece) {
+        return startCells[piece];
+    }
+
+    /**
+     * {@return bitmask of the cells the given piece has to reach, the last row for greens and the first
+     * row for reds}
+     * @param piece index of the piece.
+     */
+    public long targetCells(int piece) {
+        return piece < greenCount ? greenTarget : redTarget;
+    }
+
+    /**
+     * {@return the number of bits a packed state spends on the cell of one piece}
+     */
+    public int bitsPerCell() {
+        return bitsPerCell;
+    }
+
+    /**
+     * {@return true if the cells of every piece fit in one {@code long}}
+     */
+    public boolean canPack() {
+        return bitsPerCell * startCells.length <= Long.SIZE;
+    }
+
+    /**
+     * {@return the number of symmetries of the board, including the identity with index 0}
+     */
+    public int symmetryCount() {
+        return symmetryCells.length;
+    }
+
+    /**
+     * {@return the cell a symmetry maps the given cell to}
+     * @param symmetry index of the symmetry.
+     * @param cell index of the cell.
+     */
+    public int symmetryCell(int symmetry, int cell) {
+        return symmetryCells[symmetry][cell];
+    }
+
+    /**
+     * {@return the ordinal of the direction a symmetry maps the given direction to}
+     * @param symmetry index of the symmetry.
+     * @param direction ordinal of the direction.
+     */
+    public int symmetryDirection(int symmetry, int direction) {
+        return symmetryDirections[symmetry][direction];
+    }
+
+    /**
+     * {@return true if the symmetry swaps the roles of greens and reds}
+     * @param symmetry index of the symmetry.
+     */
+    public boolean swapsColours(int symmetry) {
+        return symmetrySwapsColours[symmetry];
+    }
+
+    /**
+     * {@return index of the symmetry that applies {@code inner} first and {@code outer} second}
+     * @param outer index of the symmetry applied second.
+     * @param inner index of the symmetry applied first.
+     */
+    public int composeSymmetries(int outer, int inner) {
+        return symmetryProducts[outer][inner];
+    }
+
+    /**
+     * {@return index of the symmetry that undoes the given one}
+     * @param symmetry index of the symmetry.
+     */
+    public int inverseSymmetry(int symmetry) {
+        return symmetryInverses[symmetry];
+    }
+
+    /**
+     * {@return the random key of a piece standing on a cell}
+     * The Zobrist hash of a state is the exclusive or of the keys of its pieces, so a move updates it
+     * by two exclusive ors. Keys are drawn from a fixed seed and are the same in every run.
+     * @param piece index of the piece.
+     * @param cell index of the cell.
+     */
+    public long zobristKey(int piece, int cell) {
+        return zobristKeys[piece * cells.length + cell];
+    }
+
+    /**
+     * {@return the move of the piece standing on {@code cell} in the form expected by
+     * {@link PuzzleState#makeMove}, where {@code to} holds the row and column change of the direction}
+     * @param cell cell of the moving piece.
+     * @param direction ordinal of the direction.
+     */
+    public TwoPhaseMove<Position> toTwoPhaseMove(int cell, int direction) {
+        return new TwoPhaseMove<>(cells[cell], DIRECTION_CHANGES[direction]);
+    }
+
+    private void groupByShift(int direction) {
+        var sources = new ArrayList<Long>();
+        var distances = new ArrayList<Integer>();
+        for (var cell = 0; cell < cells.length; cell++) {
+            var next = neighbour(cell, direction);
+            if (next == NONE) {
+                continue;
+            }
+            var group = distances.indexOf(next - cell);
+            if (group < 0) {
+                distances.add(next - cell);
+                sources.add(1L << cell);
+            } else {
+                sources.set(group, sources.get(group) | 1L << cell);
+            }
+        }
+        shiftSources[direction] = sources.stream().mapToLong(Long::longValue).toArray();
+        shiftDistances[direction] = distances.stream().mapToInt(Integer::intValue).toArray();
+    }
+
+    private void findSymmetries(List<int[]> permutations, List<Boolean> swaps) {
+        var transposes = rowCount == columnCount ? 2 : 1;
+        for (var transpose = 0; transpose < transposes; transpose++) {
+            for (var flip = 0; flip < 4; flip++) {
+                var permutation = gridPermutation(transpose == 1, (flip & 1) != 0, (flip & 2) != 0);
+                if (permutation == null) {
+                    continue;
+                }
+                var greenImage = mapMask(permutation, greenTarget);
+                var redImage = mapMask(permutation, redTarget);
+                if (greenImage == greenTarget && redImage == redTarget) {
+                    permutations.add(permutation);
+                    swaps.add(false);
+                } else if (greenImage == redTarget && redImage == greenTarget
+                        && greenCount * 2 == startCells.length) {
+                    permutations.add(permutation);
+                    swaps.add(true);
+                }
+            }
+        }
+    }
+
+    private int[] gridPermutation(boolean transpose, boolean flipRows, boolean flipColumns) {
+        var permutation = new int[cells.length];
+        for (var cell = 0; cell < cells.length; cell++) {
+            var row = flipRows ? rowCount - 1 - cells[cell].row() : cells[cell].row();
+            var column = flipColumns ? columnCount - 1 - cells[cell].column() : cells[cell].column();
+            permutation[cell] = transpose ? cellOf(column, row) : cellOf(row, column);
+            if (permutation[cell] == NONE) {
+                return null;
+            }
+        }
+        return permutation;
+    }
+
+    private int[] symmetryDirections(int[] permutation) {
+        var directions = new int[DIRECTION_COUNT];
+        for (var direction = 0; direction < DIRECTION_COUNT; direction++) {
+            directions[direction] = NONE;
+            for (var candidate = 0; candidate < DIRECTION_COUNT && directions[direction] == NONE; candidate++) {
+                var matches = true;
+                for (var cell = 0; cell < cells.length && matches; cell++) {
+                    var next = neighbour(cell, direction);
+                    matches = neighbour(permutation[cell], candidate) == (next == NONE ? NONE : permutation[next]);
+                }
+                if (matches) {
+                    directions[direction] = candidate;
+                }
+            }
+            if (directions[direction] == NONE) {
+                throw new IllegalStateException("Symmetry does not preserve the board");
+            }
+        }
+        return directions;
+    }
+
+    private int[] compose(int[] outer, int[] inner) {
+        var composed = new int[cells.length];
+        for (var cell = 0; cell < cells.length; cell++) {
+            composed[cell] = outer[inner[cell]];
+        }
+        return composed;
+    }
+
+    private int findSymmetry(int[] permutation, boolean swapsColours) {
+        for (var symmetry = 0; symmetry < symmetryCells.length; symmetry++) {
+            if (Arrays.equals(symmetryCells[symmetry], permutation) && symmetrySwapsColours[symmetry] == swapsColours) {
+                return symmetry;
+            }
+        }
+        throw new IllegalStateException("Symmetries of the board do not form a group");
+    }
+
+    private static long mapMask(int[] permutation, long mask) {
+        var mapped = 0L;
+        for (; mask != 0; mask &= mask - 1) {
+            mapped |= 1L << permutation[Long.numberOfTrailingZeros(mask)];
+        }
+        return mapped;
+    }
+
+    private long cellMaskOfRow(int row) {
+        var mask = 0L;
+        for (var cell = 0; cell < cells.length; cell++) {
+            if (cells[cell].row() == row) {
+                mask |= 1L << cell;
+            }
+        }
+        return mask;
+    }
+}
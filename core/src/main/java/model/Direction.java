@@ -15,7 +15,7 @@ public enum Direction {
     private final int colChange;
 
     Direction(int rowChange, int colChange) {
-        Logger.info("Creating Direction");
+        Logger.trace("Creating Direction");
         this.rowChange = rowChange;
         this.colChange = colChange;
     }
@@ -24,7 +24,7 @@ public enum Direction {
      * {@return the change in the row coordinate when moving to the direction}
      */
     public int getRowChange() {
-        Logger.info("getRowChange");
+        Logger.trace("getRowChange");
         return rowChange;
     }
 
@@ -33,7 +33,7 @@ public enum Direction {
      * direction}
      */
     public int getColChange() {
-        Logger.info("getColChange");
+        Logger.trace("getColChange");
         return colChange;
     }
 
@@ -47,7 +47,7 @@ public enum Direction {
     public static Direction of(int rowChange, int colChange) {
         for (var direction : values()) {
             if (direction.rowChange == rowChange && direction.colChange == colChange) {
-                Logger.info("Direction found");
+                Logger.trace("Direction found");
                 return direction;
             }
         }
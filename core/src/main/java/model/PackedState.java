@@ -0,0 +1,319 @@
+package model;
+
+import puzzle.TwoPhaseMoveState.TwoPhaseMove;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Compact primitive encoding of a {@link PuzzleState} on the {@link BoardTopology#standard() standard}
+ * board. The ten cells of the board are numbered row by row, and the cell of every piece is stored
+ * on four bits of a {@code long}: piece {@code i} occupies bits {@code 4i..4i+3}.
+ * Moves are encoded as {@code fromCell << 2 | direction.ordinal()}.
+ */
+public final class PackedState {
+    private static final BoardTopology BOARD = BoardTopology.standard();
+
+    /**
+     * Number of cells on the board.
+     */
+    public static final int CELL_COUNT = BOARD.cellCount();
+    /**
+     * Number of pieces on the board.
+     */
+    public static final int PIECES_COUNT = BOARD.pieceCount();
+    /**
+     * Number of green pieces, they occupy the first piece indexes.
+     */
+    public static final int GREEN_COUNT = BOARD.greenCount();
+    /**
+     * Value used for "no cell" and "no move".
+     */
+    public static final int NONE = BoardTopology.NONE;
+
+    private static final int BITS_PER_PIECE = BOARD.bitsPerCell();
+    private static final long PIECE_MASK = (1L << BITS_PER_PIECE) - 1;
+
+    private PackedState() {
+    }
+
+    /**
+     * {@return the index of the cell at the given coordinates or {@link #NONE} if it is not on the board}
+     * @param row row of the cell.
+     * @param column column of the cell.
+     */
+    public static int cellOf(int row, int column) {
+        return BOARD.cellOf(row, column);
+    }
+
+    /**
+     * {@return the index of the cell of the given position or {@link #NONE} if it is not on the board}
+     * @param position position on the board.
+     */
+    public static int cellOf(Position position) {
+        return BOARD.cellOf(position);
+    }
+
+    /**
+     * {@return the position of the given cell}
+     * @param cell index of the cell [0-9].
+     */
+    public static Position position(int cell) {
+        return BOARD.position(cell);
+    }
+
+    /**
+     * {@return the cell reached from {@code cell} by stepping to {@code direction} or {@link #NONE}}
+     * @param cell index of the cell [0-9].
+     * @param direction ordinal of the direction.
+     */
+    public static int neighbour(int cell, int direction) {
+        return BOARD.neighbour(cell, direction);
+    }
+
+    /**
+     * Method for packing the pieces of a state.
+     * @param state state to pack.
+     * @return packed form of the state.
+     */
+    public static long pack(PuzzleState state) {
+        return state.toPacked();
+    }
+
+    /**
+     * Method for creating a state from its packed form.
+     * @param packed packed state.
+     * @return new PuzzleState with the pieces of the packed state.
+     */
+    public static PuzzleState unpack(long packed) {
+        return new PuzzleState(packed);
+    }
+
+    /**
+     * {@return the cell of the given piece}
+     * @param packed packed state.
+     * @param piece index of the piece [0-5].
+     */
+    public static int cell(long packed, int piece) {
+        return (int) ((packed >>> (piece * BITS_PER_PIECE)) & PIECE_MASK);
+    }
+
+    /**
+     * {@return the packed state with the given piece placed on {@code cell}}
+     * @param packed packed state.
+     * @param piece index of the piece [0-5].
+     * @param cell new cell of the piece.
+     */
+    public static long withCell(long packed, int piece, int cell) {
+        var shift = piece * BITS_PER_PIECE;
+        return (packed & ~(PIECE_MASK << shift)) | ((long) cell << shift);
+    }
+
+    /**
+     * {@return bitmask of the occupied cells, bit {@code c} is set if cell {@code c} holds a piece}
+     * @param packed packed state.
+     */
+    public static int occupancy(long packed) {
+        var mask = 0;
+        for (var piece = 0; piece < PIECES_COUNT; piece++) {
+            mask |= 1 << cell(packed, piece);
+        }
+        return mask;
+    }
+
+    /**
+     * {@return the representative of the states that only differ by swapping same-colour pieces}
+     * Pieces of each colour are placed on the occupied cells of that colour in increasing cell order,
+     * so two states get the same representative exactly if their green and red cell masks are equal.
+     * @param packed packed state.
+     */
+    public static long canonical(long packed) {
+        var green = 0;
+        var red = 0;
+        for (var piece = 0; piece < PIECES_COUNT; piece++) {
+            if (piece < GREEN_COUNT) {
+                green |= 1 << cell(packed, piece);
+            } else {
+                red |= 1 << cell(packed, piece);
+            }
+        }
+        var canonical = 0L;
+        var piece = 0;
+        for (; green != 0; green &= green - 1) {
+            canonical = withCell(canonical, piece++, Integer.numberOfTrailingZeros(green));
+        }
+        for (; red != 0; red &= red - 1) {
+            canonical = withCell(canonical, piece++, Integer.numberOfTrailingZeros(red));
+        }
+        return canonical;
+    }
+
+    /**
+     * {@return the number of symmetries of the board, including the identity with index 0}
+     */
+    public static int symmetryCount() {
+        return BOARD.symmetryCount();
+    }
+
+    /**
+     * {@return the packed state mapped by a symmetry}
+     * @param packed packed state.
+     * @param symmetry index of the symmetry.
+     */
+    public static long transform(long packed, int symmetry) {
+        var swap = BOARD.swapsColours(symmetry);
+        var transformed = 0L;
+        for (var piece = 0; piece < PIECES_COUNT; piece++) {
+            var target = swap ? (piece + GREEN_COUNT) % PIECES_COUNT : piece;
+            transformed = withCell(transformed, target, BOARD.symmetryCell(symmetry, cell(packed, piece)));
+        }
+        return transformed;
+    }
+
+    /**
+     * {@return the encoded move mapped by a symmetry}
+     * @param move encoded move.
+     * @param symmetry index of the symmetry.
+     */
+    public static int transformMove(int move, int symmetry) {
+        return cellMove(BOARD.symmetryCell(symmetry, move >>> 2), BOARD.symmetryDirection(symmetry, move & 3));
+    }
+
+    /**
+     * {@return index of the symmetry that applies {@code inner} first and {@code outer} second}
+     * @param outer index of the symmetry applied second.
+     * @param inner index of the symmetry applied first.
+     */
+    public static int composeSymmetries(int outer, int inner) {
+        return BOARD.composeSymmetries(outer, inner);
+    }
+
+    /**
+     * {@return index of the symmetry that undoes the given one}
+     * @param symmetry index of the symmetry.
+     */
+    public static int inverseSymmetry(int symmetry) {
+        return BOARD.inverseSymmetry(symmetry);
+    }
+
+    /**
+     * {@return index of the symmetry that maps the state onto its {@link #representative}}
+     * @param packed packed state.
+     */
+    public static int representativeSymmetry(long packed) {
+        var best = canonical(packed);
+        var bestSymmetry = 0;
+        for (var symmetry = 1; symmetry < BOARD.symmetryCount(); symmetry++) {
+            var candidate = canonical(transform(packed, symmetry));
+            if (candidate < best) {
+                best = candidate;
+                bestSymmetry = symmetry;
+            }
+        }
+        return bestSymmetry;
+    }
+
+    /**
+     * {@return the smallest {@link #canonical} state among the images of the state under every symmetry}
+     * Symmetric states have the same distance from the solved states, so solvers only need to keep one.
+     * @param packed packed state.
+     */
+    public static long representative(long packed) {
+        return canonical(transform(packed, representativeSymmetry(packed)));
+    }
+
+    /**
+     * {@return true if greens are at the bottom and reds are at the top row}
+     * @param packed packed state.
+     */
+    public static boolean isSolved(long packed) {
+        for (var piece = 0; piece < PIECES_COUNT; piece++) {
+            if ((targetCells(piece) & (1 << cell(packed, piece))) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * {@return bitmask of the cells the given piece has to reach, the bottom row for greens and the top
+     * row for reds}
+     * @param piece index of the piece [0-5].
+     */
+    public static int targetCells(int piece) {
+        return (int) BOARD.targetCells(piece);
+    }
+
+    /**
+     * {@return every packed state in which all pieces stand on their target cells}
+     */
+    public static long[] solvedStates() {
+        var states = new ArrayList<Long>();
+        placeOnTargets(0, 0L, 0, states);
+        return states.stream().mapToLong(Long::longValue).toArray();
+    }
+
+    /**
+     * {@return the move of the piece standing on {@code fromCell} encoded as {@code fromCell << 2 | direction}}
+     * Packed states do not tell same-colour pieces apart, so their moves name the cell moved from, unlike
+     * the moves of {@link PuzzleState#encodeMove}, which name the index of the piece.
+     * @param fromCell cell of the moving piece.
+     * @param direction ordinal of the direction.
+     */
+    public static int cellMove(int fromCell, int direction) {
+        return fromCell << 2 | direction;
+    }
+
+    /**
+     * {@return the packed state reached by making an encoded move}
+     * @param packed packed state.
+     * @param move encoded move of a piece standing on its {@code fromCell}.
+     * @throws IllegalArgumentException if no piece stands on the cell of the move.
+     */
+    public static long apply(long packed, int move) {
+        var from = move >>> 2;
+        for (var piece = 0; piece < PIECES_COUNT; piece++) {
+            if (cell(packed, piece) == from) {
+                return withCell(packed, piece, neighbour(from, move & 3));
+            }
+        }
+        throw new IllegalArgumentException(String.format("No piece on cell %d", from));
+    }
+
+    /**
+     * {@return the move that takes back the given move}
+     * @param move encoded move.
+     */
+    public static int reverse(int move) {
+        var direction = move & 3;
+        return cellMove(neighbour(move >>> 2, direction), opposite(direction));
+    }
+
+    /**
+     * {@return the ordinal of the opposite direction, {@link Direction} lists UP, DOWN, LEFT, RIGHT}
+     * @param direction ordinal of the direction.
+     */
+    public static int opposite(int direction) {
+        return direction ^ 1;
+    }
+
+    /**
+     * {@return the move in the form expected by {@link PuzzleState#makeMove}, where {@code to} holds the
+     * row and column change of the direction}
+     * @param move encoded move.
+     */
+    public static TwoPhaseMove<Position> toTwoPhaseMove(int move) {
+        return BOARD.toTwoPhaseMove(move >>> 2, move & 3);
+    }
+
+    private static void placeOnTargets(int piece, long packed, int occupied, List<Long> states) {
+        if (piece == PIECES_COUNT) {
+            states.add(packed);
+            return;
+        }
+        for (var free = targetCells(piece) & ~occupied; free != 0; free &= free - 1) {
+            var cell = Integer.numberOfTrailingZeros(free);
+            placeOnTargets(piece + 1, withCell(packed, piece, cell), occupied | 1 << cell, states);
+        }
+    }
+}
@@ -1,6 +1,5 @@
 package model;
 
-import lombok.ToString;
 import org.tinylog.Logger;
 
 /**
@@ -15,7 +14,9 @@ public record Position(int row, int column) {
      *
      */
     public Position move(Direction direction){
-        Logger.info("Moving to " + direction);
+        if (Logger.isTraceEnabled()) {
+            Logger.trace("Moving to {}", direction);
+        }
         return new Position(row + direction.getRowChange(),column + direction.getColChange());
     }
 
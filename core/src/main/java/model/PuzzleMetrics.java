@@ -0,0 +1,129 @@
+package model;
+
+import org.tinylog.Logger;
+
+import javax.management.JMException;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Process-wide counters of the work done on puzzle states, exposed over JMX.
+ * The counters replace the per-call logging of the model: updating one costs an uncontended add and
+ * allocates nothing, so they stay on in production solves. Publishing them starts the platform MBean
+ * server, which takes a noticeable part of a short run, so the entry points only do it when the
+ * {@value #JMX_PROPERTY} system property is {@code true}.
+ */
+public final class PuzzleMetrics implements PuzzleMetricsMXBean {
+    /**
+     * Name the counters are registered under, see {@link #register()}.
+     */
+    public static final String OBJECT_NAME = "model:type=PuzzleMetrics";
+
+    /**
+     * System property enabling {@link #registerIfEnabled()}.
+     */
+    public static final String JMX_PROPERTY = "puzzle.metrics.jmx";
+
+    private static final PuzzleMetrics INSTANCE = new PuzzleMetrics();
+
+    private final LongAdder movesGenerated = new LongAdder();
+    private final LongAdder canMoveChecks = new LongAdder();
+    private final LongAdder clones = new LongAdder();
+    private final LongAdder solves = new LongAdder();
+
+    private PuzzleMetrics() {
+    }
+
+    /**
+     * {@return the counters of this process}
+     */
+    public static PuzzleMetrics get() {
+        return INSTANCE;
+    }
+
+    /**
+     * Method for publishing the counters on the platform MBean server, does nothing if already published.
+     */
+    public static synchronized void register() {
+        try {
+            var server = ManagementFactory.getPlatformMBeanServer();
+            var name = new ObjectName(OBJECT_NAME);
+            if (!server.isRegistered(name)) {
+                server.registerMBean(INSTANCE, name);
+            }
+        } catch (JMException e) {
+            Logger.warn("Puzzle metrics are not published over JMX: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Method for publishing the counters as {@link #register()} does, but only when the
+     * {@value #JMX_PROPERTY} system property is {@code true}.
+     * @return true if the counters are published.
+     */
+    public static boolean registerIfEnabled() {
+        if (!Boolean.getBoolean(JMX_PROPERTY)) {
+            return false;
+        }
+        register();
+        return true;
+    }
+
+    /**
+     * Method for counting generated moves.
+     * @param count number of moves generated.
+     */
+    public void movesGenerated(int count) {
+        movesGenerated.add(count);
+    }
+
+    /**
+     * Method for counting one check whether a piece can move.
+     */
+    public void canMoveChecked() {
+        canMoveChecks.increment();
+    }
+
+    /**
+     * Method for counting one cloned state.
+     */
+    public void cloned() {
+        clones.increment();
+    }
+
+    /**
+     * Method for counting one search.
+     */
+    public void solved() {
+        solves.increment();
+    }
+
+    @Override
+    public long getMovesGenerated() {
+        return movesGenerated.sum();
+    }
+
+    @Override
+    public long getCanMoveChecks() {
+        return canMoveChecks.sum();
+    }
+
+    @Override
+    public long getClones() {
+        return clones.sum();
+    }
+
+    @Override
+    public long getSolves() {
+        return solves.sum();
+    }
+
+    @Override
+    public void reset() {
+        movesGenerated.reset();
+        canMoveChecks.reset();
+        clones.reset();
+        solves.reset();
+    }
+}
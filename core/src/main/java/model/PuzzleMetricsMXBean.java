@@ -0,0 +1,31 @@
+package model;
+
+/**
+ * Management interface of {@link PuzzleMetrics}, readable with JConsole or any JMX client.
+ */
+public interface PuzzleMetricsMXBean {
+    /**
+     * {@return the number of legal moves generated}
+     */
+    long getMovesGenerated();
+
+    /**
+     * {@return the number of checks whether a piece can move}
+     */
+    long getCanMoveChecks();
+
+    /**
+     * {@return the number of cloned states}
+     */
+    long getClones();
+
+    /**
+     * {@return the number of searches run}
+     */
+    long getSolves();
+
+    /**
+     * Method for setting every counter to zero.
+     */
+    void reset();
+}
@@ -0,0 +1,542 @@
+package model;
+
+import puzzle.TwoPhaseMoveState;
+
+import java.util.*;
+import org.tinylog.Logger;
+
+/**
+ * This class implements puzzle.TwoPhaseMoveState interface.
+ * Stores the cell of every piece on a {@link BoardTopology} without any JavaFX dependency,
+ * {@code ObservablePuzzleState} of the GUI module exposes it as observable properties for the UI.
+ * Moves are looked up in the transition table of the topology, so the same code runs the ten-cell
+ * board and any other board and piece count.
+ */
+public class PuzzleState implements TwoPhaseMoveState<Position> {
+    /**
+     * Max pieces on the standard board.
+     */
+    private static final int PIECES_COUNT = PackedState.PIECES_COUNT;
+    /**
+     * Size of the buffer that can hold every legal move of a state on the standard board,
+     * see {@link #getLegalMoves(int[])} and {@link #maxLegalMoves()}.
+     */
+    public static final int MAX_LEGAL_MOVES = PIECES_COUNT * 4;
+    private static final Direction[] DIRECTIONS = Direction.values();
+    private final BoardTopology topology;
+    private final int[] cells;
+    /**
+     * Piece index on every cell or {@link #EMPTY}, kept in step with {@link #cells}.
+     */
+    private final byte[] pieceAt;
+    /**
+     * Bitmask of the occupied cells, bit {@code c} is set if cell {@code c} holds a piece.
+     */
+    private long occupied;
+    /**
+     * Zobrist hash of the pieces, see {@link BoardTopology#zobristKey}.
+     */
+    private long zobristHash;
+    private static final byte EMPTY = -1;
+
+    /**
+     * enum for set index of green and red pieces. [0-5]
+     */
+    public enum PIECES {
+        G_TOP_LEFT(0),
+        G_TOP_MID(1),
+        G_TOP_RIGHT(2),
+        R_BOTTOM_LEFT(3),
+        R_BOTTOM_MID(4),
+        R_BOTTOM_RIGHT(5);
+
+        private int value;
+
+        PIECES(int value) {
+            this.value = value;
+        }
+    }
+
+    /**
+     * Uses multiple param constructor to fill positions with green and red pieces when zero-param constructor called.
+     * Start positions is full first(top) green row and full last(bottom) red row.
+     * @see <a href="https://github.com/INBPM0420L/homework-project-2024-Sciencewolf/blob/master/abra.png" target="_blank">Image</a>
+     */
+    public PuzzleState() {
+        this(BoardTopology.standard());
+    }
+
+    /**
+     * Constructor for the start state of a board, greens and reds on the cells marked for them.
+     * @param topology board to play on.
+     */
+    public PuzzleState(BoardTopology topology) {
+        this.topology = topology;
+        this.cells = new int[topology.pieceCount()];
+        for (var index = 0; index < cells.length; index++) {
+            cells[index] = topology.startCell(index);
+        }
+        this.pieceAt = indexCells();
+        Logger.info("Puzzle state initialised");
+    }
+
+    /**
+     * Multiple param constructor.
+     * @param positions array of Position's.
+     */
+    public PuzzleState(Position... positions) {
+        this(BoardTopology.standard(), positions);
+    }
+
+    /**
+     * Constructor for a state of any board.
+     * @param topology board to play on.
+     * @param positions positions of the pieces, greens first.
+     */
+    public PuzzleState(BoardTopology topology, Position... positions) {
+        this.topology = topology;
+        checkPositions(positions);
+        this.cells = new int[positions.length];
+        for(var index = 0; index < positions.length; index++) {
+            cells[index] = topology.cellOf(positions[index]);
+        }
+        this.pieceAt = indexCells();
+        Logger.info("Puzzle state initialised and board is filled");
+    }
+
+    /**
+     * Constructor for a state that is already known to be valid.
+     * @param packed packed state, see {@link PackedState}.
+     */
+    PuzzleState(long packed) {
+        this.topology = BoardTopology.standard();
+        this.cells = new int[PIECES_COUNT];
+        for (var index = 0; index < PIECES_COUNT; index++) {
+            cells[index] = PackedState.cell(packed, index);
+        }
+        this.pieceAt = indexCells();
+    }
+
+    private PuzzleState(PuzzleState other) {
+        this.topology = other.topology;
+        this.cells = other.cells.clone();
+        this.pieceAt = other.pieceAt.clone();
+        this.occupied = other.occupied;
+        this.zobristHash = other.zobristHash;
+    }
+
+    /**
+     * Constructor for the state of an immutable board.
+     * @param boardState state of the board.
+     */
+    public PuzzleState(BoardState boardState) {
+        this(boardState.packed());
+    }
+
+    /**
+     * Method for getting Position object by index.
+     * @param index index of piece [0-5].
+     * @return Position object.
+     */
+    public Position getPosition(int index) {
+        if (Logger.isTraceEnabled()) {
+            Logger.trace("Getting position for index {}", index);
+        }
+        return topology.position(cells[index]);
+    }
+
+    /**
+     * {@return the board the state is played on}
+     */
+    public BoardTopology getTopology() {
+        return topology;
+    }
+
+    /**
+     * {@return the number of pieces on the board}
+     */
+    public int getPieceCount() {
+        return cells.length;
+    }
+
+    /**
+     * {@return size of the buffer that can hold every legal move of this state}
+     */
+    public int maxLegalMoves() {
+        return cells.length * DIRECTIONS.length;
+    }
+
+    /**
+     * {@return immutable snapshot of the current state on the standard board}
+     */
+    public BoardState toBoardState() {
+        return new BoardState(toPacked());
+    }
+
+    /**
+     * Method for returning piece given by index.
+     * @param index searched piece by index.
+     * @return given piece by index.
+     */
+    public PIECES getPieceByIndex(int index) {
+        if (Logger.isTraceEnabled()) {
+            Logger.trace("Getting pieceByIndex for index {}", index);
+        }
+        switch (index) {
+            case 0: return PIECES.G_TOP_LEFT;
+            case 1: return PIECES.G_TOP_MID;
+            case 2: return PIECES.G_TOP_RIGHT;
+            case 3: return PIECES.R_BOTTOM_LEFT;
+            case 4: return PIECES.R_BOTTOM_MID;
+            case 5: return PIECES.R_BOTTOM_RIGHT;
+        }
+
+        return PIECES.R_BOTTOM_LEFT;
+    }
+
+    /**
+     * Method for returning index of given piece.
+     * @param row which row.
+     * @param column which column.
+     * @return index of piece or -1 if not found.
+     */
+    public int getIndexOfPiece(int row, int column) {
+        var cell = topology.cellOf(row, column);
+        var index = cell == BoardTopology.NONE ? -1 : pieceAt[cell];
+        if (Logger.isTraceEnabled()) {
+            Logger.trace("Piece at row {} and column {}: {}", row, column, index);
+        }
+        return index;
+    }
+
+    /**
+     * Method for check if target position is achieved (green's at bottom, red's at top).
+     * @return true if game state is at target position's else false.
+     */
+    public boolean isTargetPositionAchieved() {
+        Logger.trace("Checking if target position is achieved");
+        for (var index = 0; index < cells.length; index++) {
+            if ((topology.targetCells(index) & (1L << cells[index])) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Method for check if position is on table.
+     * @param position given position.
+     * @return true if position is on table else false.
+     */
+    private boolean isPositionOnTable(Position position) {
+        Logger.trace("Checking if position is on table");
+        return topology.cellOf(position) != BoardTopology.NONE;
+    }
+
+    /**
+     * Method for move piece on table.
+     * @param direction direction where to move.
+     * @param piece which piece to move.
+     */
+    public void move(Direction direction, PIECES piece) {
+        if (Logger.isTraceEnabled()) {
+            Logger.trace("Moving piece {}", piece);
+        }
+        movePiece(piece.value, direction);
+    }
+
+    /**
+     * Method for check if piece can move to given direction.
+     * @param direction direction where to move.
+     * @param piece which piece to move.
+     * @return true if piece can move to given direction else false.
+     */
+    public boolean canMove(Direction direction, PIECES piece) {
+        if (Logger.isTraceEnabled()) {
+            Logger.trace("Checking if canMove piece {}", piece);
+        }
+        return canMove(piece.value, direction);
+    }
+
+    /**
+     * Method for check if the piece with the given index can move to given direction.
+     * @param index index of piece.
+     * @param direction direction where to move.
+     * @return true if piece can move to given direction else false.
+     */
+    private boolean canMove(int index, Direction direction) {
+        PuzzleMetrics.get().canMoveChecked();
+        var to = topology.neighbour(cells[index], direction.ordinal());
+        return to != BoardTopology.NONE && (occupied & (1L << to)) == 0;
+    }
+
+    /**
+     * Method for moving piece on table.
+     * @param index index of piece.
+     * @param direction direction where to move.
+     */
+    private void movePiece(int index, Direction direction) {
+        place(index, topology.neighbour(cells[index], direction.ordinal()));
+        if (Logger.isTraceEnabled()) {
+            Logger.trace("Moved piece {} to {}", index, getPosition(index));
+        }
+    }
+
+    /**
+     * Method for check if array of position's is correct.
+     * @param positions array of position's.
+     */
+    public void checkPositions(Position[] positions) {
+        if (positions.length != topology.pieceCount()) {
+            Logger.error("Incorrect number of positions");
+            throw new IllegalArgumentException(String.format("Positions must have the same length as: %s", topology.pieceCount()));
+        }
+
+        for(var position : positions) {
+            if (!isPositionOnTable(position)) {
+                Logger.error("Incorrect position");
+                throw new IllegalArgumentException(String.format("Position %s is not on table", position));
+            }
+        }
+    }
+
+    /* Below only implemented methods from TwoPhaseMoveState<Position> and other */
+
+    @Override
+    public boolean isLegalToMoveFrom(Position position) {
+        if (Logger.isTraceEnabled()) {
+            Logger.trace("Checking if position is legal to move from {}", position);
+        }
+        return getIndexOfPiece(position.row(), position.column()) >= 0;
+    }
+
+    @Override
+    public boolean isSolved() {
+        Logger.trace("Checking if game is solved");
+        return isTargetPositionAchieved();
+    }
+
+    @Override
+    public boolean isLegalMove(TwoPhaseMove<Position> positionTwoPhaseMove) {
+        if (Logger.isTraceEnabled()) {
+            Logger.trace("Checking if move is legal: {}", positionTwoPhaseMove);
+        }
+        var index = getIndexOfPiece(positionTwoPhaseMove.from().row(), positionTwoPhaseMove.from().column());
+        return index >= 0 && canMove(
+                index,
+                Direction.of(
+                        positionTwoPhaseMove.to().row(),
+                        positionTwoPhaseMove.to().column()
+                )
+        );
+    }
+
+    @Override
+    public void makeMove(TwoPhaseMove<Position> positionTwoPhaseMove) {
+        if (Logger.isTraceEnabled()) {
+            Logger.trace("Making move {}", positionTwoPhaseMove);
+        }
+        movePiece(
+                getIndexOfPiece(
+                        positionTwoPhaseMove.from().row(),
+                        positionTwoPhaseMove.from().column()
+                ),
+                Direction.of(
+                        positionTwoPhaseMove.to().row(),
+                        positionTwoPhaseMove.to().column()
+                )
+        );
+
+        if(isTargetPositionAchieved()) {
+            Logger.info("Target position is achieved");
+        }
+    }
+
+    @Override
+    public Set<TwoPhaseMove<Position>> getLegalMoves() {
+        Set<TwoPhaseMove<Position>> setOfLegalMoves = new HashSet<>();
+        var moves = new int[maxLegalMoves()];
+        var count = getLegalMoves(moves);
+        for (var index = 0; index < count; index++) {
+            var piece = pieceOfMove(moves[index]);
+            setOfLegalMoves.add(topology.toTwoPhaseMove(cells[piece], moves[index] & 3));
+        }
+        Logger.trace("Getting legal moves");
+        return setOfLegalMoves;
+    }
+
+    /**
+     * Method for writing every legal move into a buffer without allocating.
+     * Moves are encoded by {@link #encodeMove}, grouped by direction and ordered by cell within a group.
+     * The movable pieces of a direction are found with a few shifts of the occupancy mask, see
+     * {@link BoardTopology#movableCells}.
+     * @param moves buffer with room for at least {@link #maxLegalMoves()} moves.
+     * @return number of moves written.
+     */
+    public int getLegalMoves(int[] moves) {
+        var count = 0;
+        for (var direction = 0; direction < DIRECTIONS.length; direction++) {
+            for (var movable = topology.movableCells(occupied, direction); movable != 0; movable &= movable - 1) {
+                moves[count++] = pieceAt[Long.numberOfTrailingZeros(movable)] << 2 | direction;
+            }
+        }
+        PuzzleMetrics.get().movesGenerated(count);
+        return count;
+    }
+
+    /**
+     * Method for writing every legal move of a packed state of the standard board into a buffer.
+     * @param packed packed state.
+     * @param moves buffer with room for at least {@link #MAX_LEGAL_MOVES} moves.
+     * @return number of moves written.
+     */
+    static int getLegalMoves(long packed, int[] moves) {
+        var occupied = PackedState.occupancy(packed);
+        var count = 0;
+        for (var direction : DIRECTIONS) {
+            for (var index = 0; index < PIECES_COUNT; index++) {
+                var to = PackedState.neighbour(PackedState.cell(packed, index), direction.ordinal());
+                if (to != PackedState.NONE && (occupied & (1 << to)) == 0) {
+                    moves[count++] = encodeMove(index, direction);
+                }
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Method for making a move returned by {@link #getLegalMoves(int[])}, the move is not validated.
+     * @param move encoded move.
+     */
+    public void makeMove(int move) {
+        var index = pieceOfMove(move);
+        place(index, topology.neighbour(cells[index], move & 3));
+    }
+
+    /**
+     * Method for taking back the last move made by {@link #makeMove(int)}, so depth-first searches can
+     * walk the tree on a single state.
+     * @param move encoded move that was made last.
+     */
+    public void unmakeMove(int move) {
+        var index = pieceOfMove(move);
+        place(index, topology.neighbour(cells[index], PackedState.opposite(move & 3)));
+    }
+
+    /**
+     * {@return the 64-bit Zobrist hash of the pieces, updated by every move in constant time}
+     * Equal states on the same board have equal hashes; different states collide with a probability
+     * of about {@code 2^-64}, so searches may use the hash as the key of a transposition table.
+     */
+    public long zobristHash() {
+        return zobristHash;
+    }
+
+    /**
+     * {@return the move that takes back the given encoded move}
+     * @param move encoded move.
+     */
+    public static int reverseMove(int move) {
+        return move ^ 1;
+    }
+
+    /**
+     * Method for getting the pieces of the state in packed form, see {@link PackedState}.
+     * Piece {@code i} is stored on bits {@code i * bitsPerCell} upwards, which is the layout of
+     * {@link PackedState} on the standard board.
+     * @return packed state.
+     * @throws IllegalStateException if the pieces of the board do not fit in a {@code long}.
+     */
+    public long toPacked() {
+        if (!topology.canPack()) {
+            throw new IllegalStateException("Board is too large to pack");
+        }
+        var bits = topology.bitsPerCell();
+        var packed = 0L;
+        for (var index = 0; index < cells.length; index++) {
+            packed |= (long) cells[index] << (index * bits);
+        }
+        return packed;
+    }
+
+    /**
+     * {@return the move of the piece with the given index encoded as {@code index << 2 | direction.ordinal()}}
+     * These moves name the piece, unlike the moves of packed states, which name the cell moved from,
+     * see {@link PackedState#cellMove}; the two encodings must not be mixed.
+     * @param index index of piece [0-5].
+     * @param direction direction where to move.
+     */
+    public static int encodeMove(int index, Direction direction) {
+        return index << 2 | direction.ordinal();
+    }
+
+    /**
+     * {@return index of the piece moved by an encoded move}
+     * @param move encoded move.
+     */
+    public static int pieceOfMove(int move) {
+        return move >>> 2;
+    }
+
+    /**
+     * {@return direction of an encoded move}
+     * @param move encoded move.
+     */
+    public static Direction directionOfMove(int move) {
+        return DIRECTIONS[move & 3];
+    }
+
+    /**
+     * Method for moving a piece and updating the occupancy mask and the cell index.
+     * @param index index of piece.
+     * @param to new cell of the piece.
+     */
+    private void place(int index, int to) {
+        var from = cells[index];
+        cells[index] = to;
+        pieceAt[from] = EMPTY;
+        pieceAt[to] = (byte) index;
+        occupied ^= 1L << from | 1L << to;
+        zobristHash ^= topology.zobristKey(index, from) ^ topology.zobristKey(index, to);
+    }
+
+    private byte[] indexCells() {
+        var index = new byte[topology.cellCount()];
+        Arrays.fill(index, EMPTY);
+        for (var piece = 0; piece < cells.length; piece++) {
+            index[cells[piece]] = (byte) piece;
+            occupied |= 1L << cells[piece];
+            zobristHash ^= topology.zobristKey(piece, cells[piece]);
+        }
+        return index;
+    }
+
+    @Override
+    public PuzzleState clone() {
+        PuzzleMetrics.get().cloned();
+        return new PuzzleState(this);
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (this == obj) return true;
+
+        return (obj instanceof PuzzleState other) && topology == other.topology && Arrays.equals(cells, other.cells);
+    }
+
+    @Override
+    public int hashCode() {
+        return Long.hashCode(zobristHash);
+    }
+
+    @Override
+    public String toString() {
+        final StringBuilder sb = new StringBuilder("\nPS[");
+        for(var index = 0; index < cells.length; index++) {
+            sb.append(getPosition(index).toString());
+            sb.append(" ");
+        }
+        sb.append(']');
+        return sb.toString();
+    }
+}
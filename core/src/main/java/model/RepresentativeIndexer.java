@@ -0,0 +1,90 @@
+package model;
+
+/**
+ * Dense index of the symmetry classes of board states.
+ * Only {@link PackedState#representative representatives} are numbered, so per-state tables need one
+ * entry per class instead of one per state. The representatives are marked in a bitmap over the
+ * {@link StateIndexer#canonical() canonical} index, and an index is the number of representatives
+ * before it, found from a per-word running count and one bit count.
+ */
+public final class RepresentativeIndexer {
+    private final StateIndexer indexer = StateIndexer.canonical();
+    private final long[] representatives;
+    private final int[] ranks;
+    private final int size;
+
+    /**
+     * Creates the indexer for the ten-cell board.
+     */
+    public RepresentativeIndexer() {
+        representatives = new long[(indexer.size() + Long.SIZE - 1) / Long.SIZE];
+        ranks = new int[representatives.length];
+        var count = 0;
+        for (var index = 0; index < indexer.size(); index++) {
+            var packed = indexer.packedAt(index);
+            if (PackedState.representative(packed) == packed) {
+                representatives[index / Long.SIZE] |= 1L << index;
+                count++;
+            }
+        }
+        var rank = 0;
+        for (var word = 0; word < representatives.length; word++) {
+            ranks[word] = rank;
+            rank += Long.bitCount(representatives[word]);
+        }
+        size = count;
+    }
+
+    /**
+     * {@return the number of symmetry classes}
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Method for getting the index of the class of a state.
+     * @param packed any packed state, see {@link PackedState}.
+     * @return index in {@code [0, size())}.
+     */
+    public int indexOf(long packed) {
+        return indexOfRepresentative(PackedState.representative(packed));
+    }
+
+    /**
+     * Method for getting the index of a representative without canonicalizing it again.
+     * @param representative packed state returned by {@link PackedState#representative}.
+     * @return index in {@code [0, size())}.
+     */
+    public int indexOfRepresentative(long representative) {
+        var index = indexer.indexOf(representative);
+        var word = index / Long.SIZE;
+        return ranks[word] + Long.bitCount(representatives[word] & ((1L << index) - 1));
+    }
+
+    /**
+     * Method for getting the representative of an index.
+     * @param index index in {@code [0, size())}.
+     * @return packed representative.
+     */
+    public long packedAt(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException(index);
+        }
+        var low = 0;
+        var high = ranks.length - 1;
+        while (low < high) {
+            var middle = (low + high + 1) >>> 1;
+            if (ranks[middle] <= index) {
+                low = middle;
+            } else {
+                high = middle - 1;
+            }
+        }
+        var bits = representatives[low];
+        for (var skip = index - ranks[low]; skip > 0; skip--) {
+            bits &= bits - 1;
+        }
+        return indexer.packedAt(low * Long.SIZE + Long.numberOfTrailingZeros(bits));
+    }
+}
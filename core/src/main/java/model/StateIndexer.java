@@ -0,0 +1,172 @@
+package model;
+
+/**
+ * Perfect hash of board states.
+ * Numbers every placement of the pieces on distinct cells with a dense index in {@code [0, size())},
+ * so solvers can keep per-state data in plain arrays instead of hash sets.
+ *
+ * <p>Pieces are ranked group by group: the cells of a group are ranked as a combination of the cells
+ * not taken by earlier groups, and the ranks are combined as a mixed-radix number. With one piece per
+ * group this is the Lehmer code of the placement. The {@link #canonical() canonical} indexer puts every
+ * piece of a colour into one group, so states that only differ by swapping same-colour pieces share
+ * an index.
+ */
+public final class StateIndexer {
+    private final int cellCount;
+    private final int[] groupSizes;
+    private final int[][] binomials;
+    private final int size;
+
+    /**
+     * Creates an indexer for the ten-cell board that tells every piece apart.
+     */
+    public StateIndexer() {
+        this(PackedState.CELL_COUNT, new int[]{1, 1, 1, 1, 1, 1});
+    }
+
+    private StateIndexer(int cellCount, int[] groupSizes) {
+        this.cellCount = cellCount;
+        this.groupSizes = groupSizes;
+        this.binomials = new int[cellCount + 1][];
+        for (var n = 0; n <= cellCount; n++) {
+            binomials[n] = new int[n + 1];
+            binomials[n][0] = 1;
+            binomials[n][n] = 1;
+            for (var k = 1; k < n; k++) {
+                binomials[n][k] = binomials[n - 1][k - 1] + binomials[n - 1][k];
+            }
+        }
+        var count = 1L;
+        var free = cellCount;
+        for (var groupSize : groupSizes) {
+            count *= binomial(free, groupSize);
+            free -= groupSize;
+        }
+        if (count > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException(String.format("Too many states to index: %d", count));
+        }
+        this.size = (int) count;
+    }
+
+    /**
+     * {@return indexer for the ten-cell board that only tells colours apart}
+     */
+    public static StateIndexer canonical() {
+        var greens = PackedState.GREEN_COUNT;
+        return new StateIndexer(PackedState.CELL_COUNT, new int[]{greens, PackedState.PIECES_COUNT - greens});
+    }
+
+    /**
+     * {@return true if same-colour pieces share one group, see {@link PackedState#canonical}}
+     */
+    public boolean isCanonical() {
+        return groupSizes.length < PackedState.PIECES_COUNT;
+    }
+
+    /**
+     * {@return the number of indexed states}
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Method for getting the index of a packed state.
+     * @param packed packed state, see {@link PackedState}.
+     * @return index of the state in {@code [0, size())}.
+     */
+    public int indexOf(long packed) {
+        var index = 0;
+        var used = 0;
+        var free = cellCount;
+        var piece = 0;
+        for (var groupSize : groupSizes) {
+            var group = 0;
+            for (var member = 0; member < groupSize; member++) {
+                group |= 1 << PackedState.cell(packed, piece++);
+            }
+            var rank = 0;
+            var member = 1;
+            for (var cells = group; cells != 0; cells &= cells - 1) {
+                var cell = Integer.numberOfTrailingZeros(cells);
+                rank += binomial(cell - Integer.bitCount(used & ((1 << cell) - 1)), member++);
+            }
+            index = index * binomial(free, groupSize) + rank;
+            used |= group;
+            free -= groupSize;
+        }
+        return index;
+    }
+
+    /**
+     * Method for getting the index of a state.
+     * @param state state of the board.
+     * @return index of the state in {@code [0, size())}.
+     */
+    public int indexOf(PuzzleState state) {
+        return indexOf(state.toPacked());
+    }
+
+    /**
+     * Method for getting the packed state of an index.
+     * Pieces of a group are placed on increasing cells, so a canonical indexer returns canonical states.
+     * @param index index in {@code [0, size())}.
+     * @return packed state, see {@link PackedState}.
+     */
+    public long packedAt(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException(index);
+        }
+        var ranks = new int[groupSizes.length];
+        var free = cellCount - PackedState.PIECES_COUNT;
+        for (var group = groupSizes.length - 1; group >= 0; group--) {
+            free += groupSizes[group];
+            var radix = binomial(free, groupSizes[group]);
+            ranks[group] = index % radix;
+            index /= radix;
+        }
+        var packed = 0L;
+        var used = 0;
+        var firstPiece = 0;
+        for (var group = 0; group < groupSizes.length; group++) {
+            var rank = ranks[group];
+            var placed = 0;
+            for (var member = groupSizes[group]; member > 0; member--) {
+                var freeRank = member - 1;
+                while (binomial(freeRank + 1, member) <= rank) {
+                    freeRank++;
+                }
+                rank -= binomial(freeRank, member);
+                var cell = nthFreeCell(used, freeRank);
+                packed = PackedState.withCell(packed, firstPiece + member - 1, cell);
+                placed |= 1 << cell;
+            }
+            used |= placed;
+            firstPiece += groupSizes[group];
+        }
+        return packed;
+    }
+
+    /**
+     * Method for getting the state of an index.
+     * @param index index in {@code [0, size())}.
+     * @return new PuzzleState.
+     */
+    public PuzzleState stateAt(int index) {
+        return PackedState.unpack(packedAt(index));
+    }
+
+    private int binomial(int n, int k) {
+        return k > n ? 0 : binomials[n][k];
+    }
+
+    private static int nthFreeCell(int used, int rank) {
+        var cell = 0;
+        while (true) {
+            if ((used & (1 << cell)) == 0 && rank-- == 0) {
+                return cell;
+            }
+            cell++;
+        }
+    }
+}
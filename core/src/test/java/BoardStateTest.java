@@ -0,0 +1,29 @@
+import model.BoardState;
+import model.Direction;
+import model.Position;
+import model.PuzzleState;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class BoardStateTest {
+    BoardState start = BoardState.start();
+
+    @Test
+    public void test_apply() {
+        var move = PuzzleState.encodeMove(PuzzleState.PIECES.G_TOP_MID.ordinal(), Direction.DOWN);
+        var next = start.apply(move);
+        assertEquals(new Position(1, 1), next.position(PuzzleState.PIECES.G_TOP_MID.ordinal()));
+        assertEquals(new Position(0, 1), start.position(PuzzleState.PIECES.G_TOP_MID.ordinal()));
+        assertEquals(start, next.apply(PuzzleState.reverseMove(move)));
+    }
+
+    @Test
+    public void test_conversion() {
+        var state = new PuzzleState(start);
+        assertEquals(new PuzzleState(), state);
+        assertEquals(start, state.toBoardState());
+        assertFalse(start.isSolved());
+        assertEquals(2, start.legalMoves(new int[PuzzleState.MAX_LEGAL_MOVES]));
+    }
+}
@@ -0,0 +1,53 @@
+import model.BoardTopology;
+import model.Direction;
+import model.Position;
+import model.PuzzleState;
+import org.junit.jupiter.api.Test;
+import puzzle.TwoPhaseMoveState.TwoPhaseMove;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class BoardTopologyTest {
+    BoardTopology standard = BoardTopology.standard();
+
+    @Test
+    public void test_standard() {
+        assertEquals(10, standard.cellCount());
+        assertEquals(6, standard.pieceCount());
+        assertEquals(3, standard.greenCount());
+        assertEquals(standard.cellOf(1, 1), standard.neighbour(standard.cellOf(0, 1), Direction.DOWN.ordinal()));
+        assertEquals(BoardTopology.NONE, standard.neighbour(standard.cellOf(0, 0), Direction.DOWN.ordinal()));
+        assertEquals(BoardTopology.NONE, standard.cellOf(2, 2));
+        assertEquals(2, standard.symmetryCount());
+        assertTrue(standard.swapsColours(1));
+        assertEquals(standard.cellOf(4, 0), standard.symmetryCell(1, standard.cellOf(0, 0)));
+        assertEquals(Direction.DOWN.ordinal(), standard.symmetryDirection(1, Direction.UP.ordinal()));
+    }
+
+    @Test
+    public void test_grid() {
+        var topology = BoardTopology.grid(
+                "GGGG",
+                ".o..",
+                "oooo",
+                "..o.",
+                "RRRR"
+        );
+        assertEquals(14, topology.cellCount());
+        assertEquals(8, topology.pieceCount());
+        assertEquals(2, topology.symmetryCount());
+        assertEquals(topology.cellOf(3, 2), topology.symmetryCell(1, topology.cellOf(1, 1)));
+        assertThrows(IllegalArgumentException.class, () -> BoardTopology.grid("GxR"));
+
+        var state = new PuzzleState(topology);
+        var moves = new int[state.maxLegalMoves()];
+        assertEquals(2, state.getLegalMoves(moves));
+        assertEquals(2, state.getLegalMoves().size());
+        assertTrue(state.isLegalMove(new TwoPhaseMove<>(new Position(0, 1), new Position(1, 0))));
+        state.makeMove(moves[0]);
+        state.unmakeMove(moves[0]);
+        assertEquals(new PuzzleState(topology), state);
+        assertFalse(state.isSolved());
+        assertEquals(topology.cellOf(4, 3), (int) (state.toPacked() >>> (7 * topology.bitsPerCell())));
+    }
+}
@@ -0,0 +1,69 @@
+import model.Direction;
+import model.PackedState;
+import model.Position;
+import model.PuzzleState;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class PackedStateTest {
+    PuzzleState ps = new PuzzleState();
+
+    @Test
+    public void test_packAndUnpack() {
+        var packed = PackedState.pack(ps);
+        assertEquals(ps, PackedState.unpack(packed));
+        assertEquals(0, PackedState.cell(packed, PuzzleState.PIECES.G_TOP_LEFT.ordinal()));
+        assertEquals(9, PackedState.cell(packed, PuzzleState.PIECES.R_BOTTOM_RIGHT.ordinal()));
+    }
+
+    @Test
+    public void test_neighbour() {
+        var topMid = PackedState.cellOf(0, 1);
+        assertEquals(PackedState.cellOf(1, 1), PackedState.neighbour(topMid, Direction.DOWN.ordinal()));
+        assertEquals(PackedState.NONE, PackedState.neighbour(topMid, Direction.UP.ordinal()));
+        assertEquals(PackedState.NONE, PackedState.neighbour(PackedState.cellOf(2, 1), Direction.RIGHT.ordinal()));
+        assertEquals(PackedState.NONE, PackedState.cellOf(1, 0));
+    }
+
+    @Test
+    public void test_isSolved() {
+        assertFalse(PackedState.isSolved(PackedState.pack(ps)));
+        var solved = new PuzzleState(
+                new Position(4, 0), new Position(4, 1), new Position(4, 2),
+                new Position(0, 2), new Position(0, 0), new Position(0, 1)
+        );
+        assertTrue(PackedState.isSolved(PackedState.pack(solved)));
+    }
+
+    @Test
+    public void test_canonical() {
+        var swapped = new PuzzleState(
+                new Position(0, 2), new Position(0, 0), new Position(0, 1),
+                new Position(4, 1), new Position(4, 2), new Position(4, 0)
+        );
+        assertNotEquals(ps, swapped);
+        assertEquals(PackedState.pack(ps), PackedState.canonical(PackedState.pack(swapped)));
+    }
+
+    @Test
+    public void test_transform() {
+        var start = PackedState.pack(ps);
+        assertEquals(start, PackedState.canonical(PackedState.transform(start, 1)));
+        for (var solved : PackedState.solvedStates()) {
+            assertTrue(PackedState.isSolved(PackedState.transform(solved, 1)));
+        }
+    }
+
+    @Test
+    public void test_representative() {
+        var packed = PackedState.pack(new PuzzleState(
+                new Position(0, 0), new Position(1, 1), new Position(0, 2),
+                new Position(2, 0), new Position(4, 1), new Position(4, 2)
+        ));
+        var representative = PackedState.representative(packed);
+        for (var symmetry = 0; symmetry < PackedState.symmetryCount(); symmetry++) {
+            assertEquals(representative, PackedState.representative(PackedState.transform(packed, symmetry)));
+        }
+    }
+}
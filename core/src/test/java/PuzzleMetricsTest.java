@@ -0,0 +1,55 @@
+import model.Direction;
+import model.PuzzleMetrics;
+import model.PuzzleState;
+import org.junit.jupiter.api.Test;
+
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class PuzzleMetricsTest {
+    PuzzleMetrics metrics = PuzzleMetrics.get();
+
+    @Test
+    public void test_counters() {
+        var moves = metrics.getMovesGenerated();
+        var checks = metrics.getCanMoveChecks();
+        var clones = metrics.getClones();
+
+        var ps = new PuzzleState();
+        assertEquals(2, ps.getLegalMoves(new int[PuzzleState.MAX_LEGAL_MOVES]));
+        ps.canMove(Direction.DOWN, PuzzleState.PIECES.G_TOP_MID);
+        ps.clone();
+
+        assertTrue(metrics.getMovesGenerated() >= moves + 2);
+        assertTrue(metrics.getCanMoveChecks() >= checks + 1);
+        assertTrue(metrics.getClones() >= clones + 1);
+    }
+
+    @Test
+    public void test_register() throws Exception {
+        PuzzleMetrics.register();
+        PuzzleMetrics.register();
+        var server = ManagementFactory.getPlatformMBeanServer();
+        var name = new ObjectName(PuzzleMetrics.OBJECT_NAME);
+        assertTrue(server.isRegistered(name));
+        assertTrue((Long) server.getAttribute(name, "Solves") >= 0);
+    }
+
+    @Test
+    public void test_registerIfEnabled() {
+        var previous = System.clearProperty(PuzzleMetrics.JMX_PROPERTY);
+        try {
+            assertFalse(PuzzleMetrics.registerIfEnabled());
+            System.setProperty(PuzzleMetrics.JMX_PROPERTY, "true");
+            assertTrue(PuzzleMetrics.registerIfEnabled());
+        } finally {
+            if (previous == null) {
+                System.clearProperty(PuzzleMetrics.JMX_PROPERTY);
+            } else {
+                System.setProperty(PuzzleMetrics.JMX_PROPERTY, previous);
+            }
+        }
+    }
+}
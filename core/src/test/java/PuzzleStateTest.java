@@ -0,0 +1,125 @@
+import model.Direction;
+import model.Position;
+import model.PuzzleState;
+import model.StateIndexer;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+
+public class PuzzleStateTest {
+    PuzzleState ps = new PuzzleState();
+
+    @Test
+    public void test_canMove() {
+        assertFalse(ps.canMove(Direction.UP, PuzzleState.PIECES.G_TOP_MID));
+        assertFalse(ps.canMove(Direction.LEFT, PuzzleState.PIECES.G_TOP_MID));
+        assertFalse(ps.canMove(Direction.RIGHT, PuzzleState.PIECES.G_TOP_MID));
+        assertTrue(ps.canMove(Direction.DOWN, PuzzleState.PIECES.G_TOP_MID));
+
+        assertFalse(ps.canMove(Direction.UP, PuzzleState.PIECES.G_TOP_LEFT));
+        assertFalse(ps.canMove(Direction.LEFT, PuzzleState.PIECES.G_TOP_LEFT));
+        assertFalse(ps.canMove(Direction.RIGHT, PuzzleState.PIECES.G_TOP_LEFT));
+        assertFalse(ps.canMove(Direction.DOWN, PuzzleState.PIECES.G_TOP_LEFT));
+
+        assertFalse(ps.canMove(Direction.UP, PuzzleState.PIECES.G_TOP_RIGHT));
+        assertFalse(ps.canMove(Direction.LEFT, PuzzleState.PIECES.G_TOP_RIGHT));
+        assertFalse(ps.canMove(Direction.RIGHT, PuzzleState.PIECES.G_TOP_RIGHT));
+        assertFalse(ps.canMove(Direction.DOWN, PuzzleState.PIECES.G_TOP_RIGHT));
+
+        assertTrue(ps.canMove(Direction.UP, PuzzleState.PIECES.R_BOTTOM_MID));
+        assertFalse(ps.canMove(Direction.LEFT, PuzzleState.PIECES.R_BOTTOM_MID));
+        assertFalse(ps.canMove(Direction.RIGHT, PuzzleState.PIECES.R_BOTTOM_MID));
+        assertFalse(ps.canMove(Direction.DOWN, PuzzleState.PIECES.R_BOTTOM_MID));
+
+        assertFalse(ps.canMove(Direction.UP, PuzzleState.PIECES.R_BOTTOM_LEFT));
+        assertFalse(ps.canMove(Direction.LEFT, PuzzleState.PIECES.R_BOTTOM_LEFT));
+        assertFalse(ps.canMove(Direction.RIGHT, PuzzleState.PIECES.R_BOTTOM_LEFT));
+        assertFalse(ps.canMove(Direction.DOWN, PuzzleState.PIECES.R_BOTTOM_LEFT));
+
+        assertFalse(ps.canMove(Direction.UP, PuzzleState.PIECES.R_BOTTOM_RIGHT));
+        assertFalse(ps.canMove(Direction.LEFT, PuzzleState.PIECES.R_BOTTOM_RIGHT));
+        assertFalse(ps.canMove(Direction.RIGHT, PuzzleState.PIECES.R_BOTTOM_RIGHT));
+        assertFalse(ps.canMove(Direction.DOWN, PuzzleState.PIECES.R_BOTTOM_RIGHT));
+    }
+
+    @Test
+    public void test_toString() {
+        assertEquals("\nPS[(0, 0) (0, 1) (0, 2) (4, 0) (4, 1) (4, 2) ]", ps.toString());
+    }
+
+    @Test
+    public void test_getLegalMoves_matchesCanMove() {
+        var indexer = new StateIndexer();
+        var moves = new int[PuzzleState.MAX_LEGAL_MOVES];
+        for (var index = 0; index < indexer.size(); index += 97) {
+            var state = indexer.stateAt(index);
+            var encoded = new HashSet<Integer>();
+            var count = state.getLegalMoves(moves);
+            for (var i = 0; i < count; i++) {
+                encoded.add(moves[i]);
+            }
+            for (var direction : Direction.values()) {
+                for (var piece : PuzzleState.PIECES.values()) {
+                    assertEquals(state.canMove(direction, piece),
+                            encoded.contains(PuzzleState.encodeMove(piece.ordinal(), direction)));
+                }
+            }
+            assertEquals(count, state.getLegalMoves().size());
+        }
+    }
+
+    @Test
+    public void test_makeMove_encoded() {
+        var moves = new int[PuzzleState.MAX_LEGAL_MOVES];
+        assertEquals(2, ps.getLegalMoves(moves));
+        assertEquals(PuzzleState.encodeMove(PuzzleState.PIECES.R_BOTTOM_MID.ordinal(), Direction.UP), moves[0]);
+        assertEquals(PuzzleState.encodeMove(PuzzleState.PIECES.G_TOP_MID.ordinal(), Direction.DOWN), moves[1]);
+        ps.makeMove(moves[1]);
+        assertEquals("\nPS[(0, 0) (1, 1) (0, 2) (4, 0) (4, 1) (4, 2) ]", ps.toString());
+    }
+
+    @Test
+    public void test_unmakeMove() {
+        var start = ps.clone();
+        var moves = new int[PuzzleState.MAX_LEGAL_MOVES];
+        var count = ps.getLegalMoves(moves);
+        for (var index = 0; index < count; index++) {
+            ps.makeMove(moves[index]);
+            assertNotEquals(start, ps);
+            ps.unmakeMove(moves[index]);
+            assertEquals(start, ps);
+        }
+        assertEquals(start.toPacked(), ps.toPacked());
+    }
+
+    @Test
+    public void test_getIndexOfPiece_afterMoves() {
+        ps.move(Direction.DOWN, PuzzleState.PIECES.G_TOP_MID);
+        assertEquals(-1, ps.getIndexOfPiece(0, 1));
+        assertEquals(PuzzleState.PIECES.G_TOP_MID.ordinal(), ps.getIndexOfPiece(1, 1));
+        var clone = ps.clone();
+        clone.move(Direction.LEFT, PuzzleState.PIECES.G_TOP_RIGHT);
+        assertEquals(PuzzleState.PIECES.G_TOP_RIGHT.ordinal(), clone.getIndexOfPiece(0, 1));
+        assertEquals(-1, ps.getIndexOfPiece(0, 1));
+        assertEquals(-1, ps.getIndexOfPiece(1, 0));
+    }
+
+    @Test
+    public void test_zobristHash() {
+        var start = ps.zobristHash();
+        ps.move(Direction.DOWN, PuzzleState.PIECES.G_TOP_MID);
+        assertNotEquals(start, ps.zobristHash());
+        var other = new PuzzleState(
+                new Position(0, 0), new Position(1, 1), new Position(0, 2),
+                new Position(4, 0), new Position(4, 1), new Position(4, 2)
+        );
+        assertEquals(other, ps);
+        assertEquals(other.zobristHash(), ps.zobristHash());
+        assertEquals(other.hashCode(), ps.hashCode());
+        ps.move(Direction.UP, PuzzleState.PIECES.G_TOP_MID);
+        assertEquals(start, ps.zobristHash());
+    }
+}
@@ -0,0 +1,22 @@
+import model.PackedState;
+import model.RepresentativeIndexer;
+import model.StateIndexer;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class RepresentativeIndexerTest {
+    RepresentativeIndexer indexer = new RepresentativeIndexer();
+
+    @Test
+    public void test_indexOf_isInverseOfPackedAt() {
+        assertTrue(indexer.size() * PackedState.symmetryCount() >= StateIndexer.canonical().size());
+        for (var index = 0; index < indexer.size(); index++) {
+            var packed = indexer.packedAt(index);
+            assertEquals(PackedState.representative(packed), packed);
+            assertEquals(index, indexer.indexOf(packed));
+            assertEquals(index, indexer.indexOf(PackedState.transform(packed, 1)));
+        }
+        assertThrows(IndexOutOfBoundsException.class, () -> indexer.packedAt(indexer.size()));
+    }
+}
@@ -0,0 +1,52 @@
+import model.PackedState;
+import model.PuzzleState;
+import model.StateIndexer;
+import org.junit.jupiter.api.Test;
+
+import java.util.BitSet;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class StateIndexerTest {
+    StateIndexer indexer = new StateIndexer();
+
+    @Test
+    public void test_size() {
+        assertEquals(10 * 9 * 8 * 7 * 6 * 5, indexer.size());
+    }
+
+    @Test
+    public void test_indexOf_isInverseOfPackedAt() {
+        var seen = new BitSet(indexer.size());
+        for (var index = 0; index < indexer.size(); index++) {
+            var packed = indexer.packedAt(index);
+            assertEquals(index, indexer.indexOf(packed));
+            assertEquals(6, Integer.bitCount(PackedState.occupancy(packed)));
+            seen.set(index);
+        }
+        assertEquals(indexer.size(), seen.cardinality());
+    }
+
+    @Test
+    public void test_stateAt() {
+        var ps = new PuzzleState();
+        assertEquals(ps, indexer.stateAt(indexer.indexOf(ps)));
+        assertThrows(IndexOutOfBoundsException.class, () -> indexer.packedAt(indexer.size()));
+    }
+
+    @Test
+    public void test_canonical() {
+        var canonical = StateIndexer.canonical();
+        assertTrue(canonical.isCanonical());
+        assertEquals(120 * 35, canonical.size());
+        for (var index = 0; index < canonical.size(); index++) {
+            var packed = canonical.packedAt(index);
+            assertEquals(PackedState.canonical(packed), packed);
+            assertEquals(index, canonical.indexOf(packed));
+        }
+        for (var index = 0; index < indexer.size(); index += 31) {
+            var packed = indexer.packedAt(index);
+            assertEquals(canonical.indexOf(PackedState.canonical(packed)), canonical.indexOf(packed));
+        }
+    }
+}
@@ -0,0 +1,133 @@
+package model;
+
+import javafx.beans.property.ReadOnlyBooleanProperty;
+import javafx.beans.property.ReadOnlyBooleanWrapper;
+import javafx.beans.property.ReadOnlyObjectProperty;
+import javafx.beans.property.ReadOnlyObjectWrapper;
+import org.tinylog.Logger;
+import puzzle.TwoPhaseMoveState;
+
+import java.util.Set;
+
+/**
+ * Observable adapter of {@link PuzzleState} for the UI.
+ * Every move is made on the wrapped state and then published through the JavaFX properties.
+ */
+public class ObservablePuzzleState implements TwoPhaseMoveState<Position> {
+    private final PuzzleState state;
+    private final ReadOnlyBooleanWrapper isSolved;
+    private final ReadOnlyObjectWrapper<Position>[] piecesPosition;
+
+    /**
+     * Creates an adapter over the start state.
+     */
+    public ObservablePuzzleState() {
+        this(new PuzzleState());
+    }
+
+    /**
+     * Creates an adapter that owns the given state.
+     * @param state state to expose, it must not be modified directly afterwards.
+     */
+    @SuppressWarnings("unchecked")
+    public ObservablePuzzleState(PuzzleState state) {
+        this.state = state;
+        this.piecesPosition = new ReadOnlyObjectWrapper[state.getTopology().pieceCount()];
+        for (var index = 0; index < piecesPosition.length; index++) {
+            piecesPosition[index] = new ReadOnlyObjectWrapper<>(state.getPosition(index));
+        }
+        this.isSolved = new ReadOnlyBooleanWrapper(state.isSolved());
+    }
+
+    /**
+     * {@return copy of the wrapped state}
+     */
+    public PuzzleState getState() {
+        return state.clone();
+    }
+
+    /**
+     * Method for getting Position object by index.
+     * @param index index of the piece, below the piece count of the board.
+     * @return Position object.
+     */
+    public Position getPosition(int index) {
+        return piecesPosition[index].get();
+    }
+
+    /**
+     * Method for getting ReadOnlyObjectProperty of Position object by giving index.
+     * @param index index of the piece, below the piece count of the board.
+     * @return ReadOnlyObjectProperty from Position object.
+     */
+    public ReadOnlyObjectProperty<Position> getPositionProperty(int index) {
+        if (Logger.isTraceEnabled()) {
+            Logger.trace("Getting positionProperty for index {}", index);
+        }
+        return piecesPosition[index].getReadOnlyProperty();
+    }
+
+    /**
+     * Method for getting ReadOnlyBooleanProperty of isSolved field.
+     * @return ReadOnlyBooleanProperty for isSolved object.
+     */
+    public ReadOnlyBooleanProperty getIsSolvedProperty() {
+        if (Logger.isTraceEnabled()) {
+            Logger.trace("Getting isSolvedProperty");
+        }
+        return isSolved.getReadOnlyProperty();
+    }
+
+    /**
+     * Method for moving a piece, see {@link PuzzleState#move}.
+     * @param direction direction where to move.
+     * @param piece which piece to move.
+     */
+    public void move(Direction direction, PuzzleState.PIECES piece) {
+        state.move(direction, piece);
+        publish();
+    }
+
+    @Override
+    public boolean isLegalToMoveFrom(Position position) {
+        return state.isLegalToMoveFrom(position);
+    }
+
+    @Override
+    public boolean isSolved() {
+        return state.isSolved();
+    }
+
+    @Override
+    public boolean isLegalMove(TwoPhaseMove<Position> positionTwoPhaseMove) {
+        return state.isLegalMove(positionTwoPhaseMove);
+    }
+
+    @Override
+    public void makeMove(TwoPhaseMove<Position> positionTwoPhaseMove) {
+        state.makeMove(positionTwoPhaseMove);
+        publish();
+    }
+
+    @Override
+    public Set<TwoPhaseMove<Position>> getLegalMoves() {
+        return state.getLegalMoves();
+    }
+
+    @Override
+    public ObservablePuzzleState clone() {
+        return new ObservablePuzzleState(state.clone());
+    }
+
+    @Override
+    public String toString() {
+        return state.toString();
+    }
+
+    private void publish() {
+        for (var index = 0; index < piecesPosition.length; index++) {
+            piecesPosition[index].set(state.getPosition(index));
+        }
+        isSolved.set(state.isSolved());
+    }
+}
@@ -0,0 +1,21 @@
+import model.Direction;
+import model.ObservablePuzzleState;
+import model.Position;
+import model.PuzzleState;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ObservablePuzzleStateTest {
+    ObservablePuzzleState state = new ObservablePuzzleState();
+
+    @Test
+    public void test_move_updatesProperty() {
+        var property = state.getPositionProperty(PuzzleState.PIECES.G_TOP_MID.ordinal());
+        assertEquals(new Position(0, 1), property.get());
+        state.move(Direction.DOWN, PuzzleState.PIECES.G_TOP_MID);
+        assertEquals(new Position(1, 1), property.get());
+        assertEquals(new Position(1, 1), state.getState().getPosition(PuzzleState.PIECES.G_TOP_MID.ordinal()));
+        assertFalse(state.getIsSolvedProperty().get());
+    }
+}
@@ -0,0 +1,96 @@
+package model;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import puzzle.TwoPhaseMoveState.TwoPhaseMove;
+
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks of the operations every search runs once per node.
+ * Each benchmark runs on the start state, where only two pieces can move, and on a state in the
+ * middle of the board with more legal moves.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PuzzleStateBenchmark {
+    @Param({"start", "scattered"})
+    private String position;
+
+    private PuzzleState state;
+    private PuzzleState copy;
+    private int[] moves;
+    private int move;
+
+    @Setup
+    public void setUp() {
+        state = switch (position) {
+            case "start" -> new PuzzleState();
+            case "scattered" -> new PuzzleState(
+                    new Position(0, 0), new Position(0, 1), new Position(1, 1),
+                    new Position(0, 2), new Position(2, 0), new Position(2, 1)
+            );
+            default -> throw new IllegalArgumentException(position);
+        };
+        copy = state.clone();
+        moves = new int[state.maxLegalMoves()];
+        state.getLegalMoves(moves);
+        move = moves[0];
+    }
+
+    @Benchmark
+    public int getLegalMovesIntoBuffer() {
+        return state.getLegalMoves(moves);
+    }
+
+    @Benchmark
+    public Set<TwoPhaseMove<Position>> getLegalMoves() {
+        return state.getLegalMoves();
+    }
+
+    @Benchmark
+    public void canMove(Blackhole blackhole) {
+        for (var piece : PuzzleState.PIECES.values()) {
+            for (var direction : Direction.values()) {
+                blackhole.consume(state.canMove(direction, piece));
+            }
+        }
+    }
+
+    @Benchmark
+    public long makeAndUnmakeMove() {
+        state.makeMove(move);
+        state.unmakeMove(move);
+        return state.zobristHash();
+    }
+
+    @Benchmark
+    public PuzzleState cloneState() {
+        return state.clone();
+    }
+
+    @Benchmark
+    public int hashCodeState() {
+        return state.hashCode();
+    }
+
+    @Benchmark
+    public boolean equalsState() {
+        return state.equals(copy);
+    }
+}
@@ -0,0 +1,61 @@
+package solver;
+
+import model.PuzzleState;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks of building the {@link DistanceTable} sequentially and in parallel, and of looking up a
+ * hint in the finished table.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class DistanceTableBenchmark {
+    private ForkJoinPool pool;
+    private DistanceTable table;
+    private PuzzleState start;
+
+    @Setup
+    public void setUp() {
+        pool = new ForkJoinPool();
+        table = DistanceTable.build();
+        start = new PuzzleState();
+    }
+
+    @TearDown
+    public void tearDown() {
+        pool.shutdown();
+    }
+
+    @Benchmark
+    public DistanceTable buildSequential() {
+        return DistanceTable.build();
+    }
+
+    @Benchmark
+    public DistanceTable buildParallel() {
+        return DistanceTable.build(pool);
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.NANOSECONDS)
+    public Object hint() {
+        return table.hint(start);
+    }
+}
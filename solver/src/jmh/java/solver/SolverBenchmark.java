@@ -0,0 +1,83 @@
+package solver;
+
+import model.Position;
+import model.PuzzleState;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks of full solves from the start state and from the states furthest from the solution.
+ * The solvers and the state are built once per trial, so the time and the allocation reported by the
+ * gc profiler belong to the search alone. None of the searches keeps anything between calls and
+ * {@link IterativeDeepeningAStar} clears its transposition table at the start of every search, so no
+ * table or cache survives from one solve to the next.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class SolverBenchmark {
+    @Param({"idaStar", "aStar", "bidirectional", "breadthFirst"})
+    private String solver;
+
+    /**
+     * Start state with a solution of 62 moves, a state 58 moves away and one of the states 66 moves
+     * away, the largest distance on the board.
+     */
+    @Param({"start", "distance58", "distance66"})
+    private String position;
+
+    private PuzzleState state;
+    private IterativeDeepeningAStar idaStar;
+    private AStarSearch aStar;
+    private BidirectionalBreadthFirstSearch bidirectional;
+    private PackedBreadthFirstSearch breadthFirst;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        state = switch (position) {
+            case "start" -> new PuzzleState();
+            case "distance58" -> new PuzzleState(
+                    new Position(0, 0), new Position(0, 1), new Position(1, 1),
+                    new Position(2, 0), new Position(4, 0), new Position(4, 1)
+            );
+            case "distance66" -> new PuzzleState(
+                    new Position(0, 0), new Position(0, 1), new Position(0, 2),
+                    new Position(1, 1), new Position(2, 0), new Position(2, 1)
+            );
+            default -> throw new IllegalArgumentException(position);
+        };
+        switch (solver) {
+            case "idaStar" -> idaStar = new IterativeDeepeningAStar();
+            case "aStar" -> aStar = new AStarSearch();
+            case "bidirectional" -> bidirectional = new BidirectionalBreadthFirstSearch();
+            case "breadthFirst" -> breadthFirst = new PackedBreadthFirstSearch();
+            default -> throw new IllegalArgumentException(solver);
+        }
+    }
+
+    @Benchmark
+    public Object solve() {
+        return switch (solver) {
+            case "idaStar" -> idaStar.search(state);
+            case "aStar" -> aStar.search(state);
+            case "bidirectional" -> bidirectional.search(state);
+            case "breadthFirst" -> breadthFirst.solve(state);
+            default -> throw new IllegalArgumentException(solver);
+        };
+    }
+}
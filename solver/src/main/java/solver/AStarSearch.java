@@ -0,0 +1,100 @@
+package solver;
+
+import model.PackedState;
+import model.PuzzleMetrics;
+import model.PuzzleState;
+
+import java.util.ArrayList;
+import java.util.Optional;
+
+/**
+ * A* search over packed states guided by {@link MatchingHeuristic}.
+ * The heuristic is consistent, so the first solved state taken from the open list is reached by a
+ * shortest solution. The open list is a bucket queue indexed by {@code f = g + h}; entries whose
+ * cost has since improved are skipped when taken.
+ */
+public class AStarSearch {
+    private static final int DIRECTION_COUNT = 4;
+    private static final int EXPECTED_STATES = 1 << 12;
+
+    private final MatchingHeuristic heuristic = new MatchingHeuristic();
+    private final StateReduction reduction;
+
+    /**
+     * Creates a search that tells every piece apart.
+     */
+    public AStarSearch() {
+        this(StateReduction.NONE);
+    }
+
+    /**
+     * Creates a search.
+     * @param reduction which equivalent states to merge; solutions are still returned as moves of
+     *                  the concrete start state.
+     */
+    public AStarSearch(StateReduction reduction) {
+        this.reduction = reduction;
+    }
+
+    /**
+     * Method for finding a shortest solution.
+     * @param state start state, it is not modified.
+     * @return shortest solution and the number of expanded states.
+     */
+    public SearchResult search(PuzzleState state) {
+        PuzzleMetrics.get().solved();
+        var visited = new LongStateTable(EXPECTED_STATES);
+        var open = new ArrayList<LongRingBuffer>();
+        var concrete = PackedState.pack(state);
+        var startSymmetry = reduction.symmetryOf(concrete);
+        var start = reduction.key(concrete, startSymmetry);
+        visited.add(start, start, LongStateTable.value(0, startSymmetry, 0));
+        push(open, heuristic.estimate(start), start);
+        var expanded = 0L;
+        for (var f = 0; f < open.size(); f++) {
+            var bucket = open.get(f);
+            while (!bucket.isEmpty()) {
+                var current = bucket.removeFirst();
+                var g = LongStateTable.depthOf(visited.valueAt(visited.slotOf(current)));
+                if (g + heuristic.estimate(current) != f) {
+                    continue;
+                }
+                if (PackedState.isSolved(current)) {
+                    return new SearchResult(Optional.of(visited.pathTo(current)), expanded);
+                }
+                expanded++;
+                var occupied = PackedState.occupancy(current);
+                for (var piece = 0; piece < PackedState.PIECES_COUNT; piece++) {
+                    var from = PackedState.cell(current, piece);
+                    for (var direction = 0; direction < DIRECTION_COUNT; direction++) {
+                        var to = PackedState.neighbour(from, direction);
+                        if (to == PackedState.NONE || (occupied & (1 << to)) != 0) {
+                            continue;
+                        }
+                        var moved = PackedState.withCell(current, piece, to);
+                        var symmetry = reduction.symmetryOf(moved);
+                        var child = reduction.key(moved, symmetry);
+                        var value = LongStateTable.value(g + 1, symmetry, PackedState.cellMove(from, direction));
+                        var slot = visited.slotOf(child);
+                        if (slot < 0) {
+                            visited.add(child, current, value);
+                        } else if (LongStateTable.depthOf(visited.valueAt(slot)) > g + 1) {
+                            visited.setAt(slot, current, value);
+                        } else {
+                            continue;
+                        }
+                        push(open, g + 1 + heuristic.estimate(child), child);
+                    }
+                }
+            }
+        }
+        return new SearchResult(Optional.empty(), expanded);
+    }
+
+    private static void push(ArrayList<LongRingBuffer> open, int f, long state) {
+        while (open.size() <= f) {
+            open.add(new LongRingBuffer(EXPECTED_STATES));
+        }
+        open.get(f).addLast(state);
+    }
+}
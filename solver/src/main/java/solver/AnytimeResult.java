@@ -0,0 +1,29 @@
+package solver;
+
+import model.Position;
+import puzzle.TwoPhaseMoveState.TwoPhaseMove;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.OptionalInt;
+
+/**
+ * Outcome of a search run within a budget, see {@link AnytimeWeightedAStar}.
+ * @param solution best solution found, empty if none was found within the budget or the puzzle has none.
+ * @param lowerBound number of moves no solution can be shorter than; {@link Integer#MAX_VALUE} if the
+ *                   search proved that there is no solution.
+ * @param expandedNodes number of states whose children were generated.
+ * @param complete whether the search ran to the end instead of being stopped by the budget, in which
+ *                 case the solution is a shortest one.
+ */
+public record AnytimeResult(Optional<List<TwoPhaseMove<Position>>> solution, int lowerBound, long expandedNodes,
+                            boolean complete) {
+    /**
+     * {@return the largest number of moves by which the solution may be longer than a shortest one,
+     * or empty OptionalInt if there is no solution}
+     */
+    public OptionalInt maxExcessMoves() {
+        return solution.map(moves -> OptionalInt.of(moves.size() - Math.min(lowerBound, moves.size())))
+                .orElseGet(OptionalInt::empty);
+    }
+}
@@ -0,0 +1,301 @@
+package solver;
+
+import model.BoardTopology;
+import model.Position;
+import model.PuzzleMetrics;
+import model.PuzzleState;
+import puzzle.TwoPhaseMoveState.TwoPhaseMove;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Anytime weighted A* with a node and a wall-clock budget, for boards where a shortest solution takes
+ * too long to find.
+ * States are taken in the order of {@code g + weight * h} with the {@link MatchingHeuristic} of the
+ * board, which finds a first solution after far fewer expansions than A*. The search then goes on,
+ * pruning every state whose {@code g + h} is not below the length of the best solution so far, and
+ * every shorter solution it meets replaces that one. Run to the end it returns a shortest solution;
+ * stopped by the budget it returns the best one found.
+ *
+ * <p>The smallest {@code g + h} in the open list never exceeds the length of a shortest solution, so
+ * it is reported as the lower bound of the result, and the first solution found is at most
+ * {@code weight} times longer than a shortest one. The clock is read after a fixed amount of work,
+ * counted in heuristic steps rather than expansions, so the time between two reads does not grow with
+ * the width of the target rows and a caller that needs a hint within a deadline gets one on large
+ * boards as well.
+ */
+public class AnytimeWeightedAStar {
+    /**
+     * Weight used by the default constructor.
+     */
+    public static final double DEFAULT_WEIGHT = 2.0;
+
+    private static final int DIRECTION_COUNT = 4;
+    private static final int EXPECTED_STATES = 1 << 12;
+    private static final long CLOCK_WORK = 1 << 14;
+
+    private final double weight;
+
+    /**
+     * Creates a search with the {@link #DEFAULT_WEIGHT}.
+     */
+    public AnytimeWeightedAStar() {
+        this(DEFAULT_WEIGHT);
+    }
+
+    /**
+     * Creates a search.
+     * @param weight factor of the heuristic, at least 1; 1 is plain A*.
+     */
+    public AnytimeWeightedAStar(double weight) {
+        if (!(weight >= 1)) {
+            throw new IllegalArgumentException(String.format("Invalid weight: %s", weight));
+        }
+        this.weight = weight;
+    }
+
+    /**
+     * Method for searching until a shortest solution is proven or the time runs out.
+     * @param state start state, it is not modified.
+     * @param timeLimit wall-clock budget.
+     * @return best solution found and how far from optimal it may be.
+     * @throws IllegalStateException if the pieces of the board do not fit in a {@code long}.
+     */
+    public AnytimeResult search(PuzzleState state, Duration timeLimit) {
+        return search(state, timeLimit, Long.MAX_VALUE);
+    }
+
+    /**
+     * Method for searching until a shortest solution is proven or either budget runs out.
+     * @param state start state, it is not modified.
+     * @param timeLimit wall-clock budget.
+     * @param nodeLimit maximum number of states to expand.
+     * @return best solution found and how far from optimal it may be.
+     * @throws IllegalStateException if the pieces of the board do not fit in a {@code long}.
+     */
+    public AnytimeResult search(PuzzleState state, Duration timeLimit, long nodeLimit) {
+        PuzzleMetrics.get().solved();
+        var deadline = System.nanoTime() + Math.max(0, timeLimit.toNanos());
+        var topology = state.getTopology();
+        var heuristic = new MatchingHeuristic(topology);
+        var start = state.toPacked();
+        var bits = topology.bitsPerCell();
+        var cells = new int[topology.pieceCount()];
+        if (isSolved(topology, decode(start, bits, cells))) {
+            return new AnytimeResult(Optional.of(List.of()), 0, 0, true);
+        }
+        var visited = new LongStateTable(EXPECTED_STATES);
+        var open = new OpenList();
+        visited.add(start, start, LongStateTable.value(0, 0, 0));
+        var startEstimate = heuristic.estimate(start);
+        open.push(start, 0, weight * startEstimate, startEstimate);
+        var best = start;
+        var bestLength = Integer.MAX_VALUE;
+        var expanded = 0L;
+        var estimateWork = heuristic.estimateWork();
+        var work = CLOCK_WORK;
+        var timedOut = false;
+        while (!open.isEmpty()) {
+            if (work >= CLOCK_WORK) {
+                work = 0;
+                timedOut = System.nanoTime() - deadline >= 0;
+            }
+            if (expanded >= nodeLimit || timedOut) {
+                var lowerBound = Math.min(bestLength, open.lowestCost());
+                return new AnytimeResult(pathTo(topology, visited, best, bestLength), lowerBound, expanded, false);
+            }
+            var current = open.pop();
+            var g = LongStateTable.depthOf(visited.valueAt(visited.slotOf(current)));
+            work += estimateWork;
+            if (g != open.poppedDepth() || g + heuristic.estimate(current) >= bestLength) {
+                continue;
+            }
+            expanded++;
+            decode(current, bits, cells);
+            var occupied = 0L;
+            for (var cell : cells) {
+                occupied |= 1L << cell;
+            }
+            for (var piece = 0; piece < cells.length; piece++) {
+                var from = cells[piece];
+                for (var direction = 0; direction < DIRECTION_COUNT; direction++) {
+                    var to = topology.neighbour(from, direction);
+                    if (to == BoardTopology.NONE || (occupied & (1L << to)) != 0) {
+                        continue;
+                    }
+                    var child = current & ~(((1L << bits) - 1) << (piece * bits)) | (long) to << (piece * bits);
+                    var estimate = heuristic.estimate(child);
+                    work += estimateWork;
+                    if (g + 1 + estimate >= bestLength) {
+                        continue;
+                    }
+                    var value = LongStateTable.value(g + 1, 0, from << 2 | direction);
+                    var slot = visited.slotOf(child);
+                    if (slot < 0) {
+                        visited.add(child, current, value);
+                    } else if (LongStateTable.depthOf(visited.valueAt(slot)) > g + 1) {
+                        visited.setAt(slot, current, value);
+                    } else {
+                        continue;
+                    }
+                    cells[piece] = to;
+                    var solved = isSolved(topology, cells);
+                    cells[piece] = from;
+                    if (solved) {
+                        best = child;
+                        bestLength = g + 1;
+                    } else {
+                        open.push(child, g + 1, g + 1 + weight * estimate, g + 1 + estimate);
+                    }
+                }
+            }
+        }
+        return new AnytimeResult(pathTo(topology, visited, best, bestLength), bestLength, expanded, true);
+    }
+
+    private static int[] decode(long packed, int bits, int[] cells) {
+        var mask = (1L << bits) - 1;
+        for (var piece = 0; piece < cells.length; piece++) {
+            cells[piece] = (int) (packed >>> (piece * bits) & mask);
+        }
+        return cells;
+    }
+
+    private static boolean isSolved(BoardTopology topology, int[] cells) {
+        for (var piece = 0; piece < cells.length; piece++) {
+            if ((topology.targetCells(piece) & (1L << cells[piece])) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static Optional<List<TwoPhaseMove<Position>>> pathTo(
+            BoardTopology topology, LongStateTable visited, long state, int length) {
+        if (length == Integer.MAX_VALUE) {
+            return Optional.empty();
+        }
+        var moves = new ArrayList<TwoPhaseMove<Position>>();
+        var slot = visited.slotOf(state);
+        while (visited.parentAt(slot) != state) {
+            var move = LongStateTable.moveOf(visited.valueAt(slot));
+            moves.add(topology.toTwoPhaseMove(move >>> 2, move & 3));
+            state = visited.parentAt(slot);
+            slot = visited.slotOf(state);
+        }
+        Collections.reverse(moves);
+        return Optional.of(moves);
+    }
+
+    /**
+     * Binary heap of states ordered by their weighted cost, which also keeps a count of its entries
+     * per unweighted cost so the smallest one is known at any time. Entries whose state has since been
+     * reached by a shorter path stay in the heap and are skipped when taken.
+     */
+    private static final class OpenList {
+        private long[] states = new long[EXPECTED_STATES];
+        private double[] priorities = new double[EXPECTED_STATES];
+        private int[] depths = new int[EXPECTED_STATES];
+        private int[] costs = new int[EXPECTED_STATES];
+        private int[] costCounts = new int[64];
+        private int size;
+        private int lowestCost = Integer.MAX_VALUE;
+        private int poppedDepth;
+
+        private boolean isEmpty() {
+            return size == 0;
+        }
+
+        private void push(long state, int depth, double priority, int cost) {
+            if (size == states.length) {
+                states = Arrays.copyOf(states, size * 2);
+                priorities = Arrays.copyOf(priorities, size * 2);
+                depths = Arrays.copyOf(depths, size * 2);
+                costs = Arrays.copyOf(costs, size * 2);
+            }
+            if (cost >= costCounts.length) {
+                costCounts = Arrays.copyOf(costCounts, Math.max(cost + 1, costCounts.length * 2));
+            }
+            costCounts[cost]++;
+            lowestCost = Math.min(lowestCost, cost);
+            var index = size++;
+            while (index > 0) {
+                var parent = (index - 1) >>> 1;
+                if (priorities[parent] <= priority) {
+                    break;
+                }
+                move(parent, index);
+                index = parent;
+            }
+            states[index] = state;
+            priorities[index] = priority;
+            depths[index] = depth;
+            costs[index] = cost;
+        }
+
+        /**
+         * Method for taking the state of the smallest weighted cost.
+         * @return the state; {@link #poppedDepth} is the depth it was pushed with.
+         */
+        private long pop() {
+            var state = states[0];
+            var depth = depths[0];
+            var cost = costs[0];
+            size--;
+            var lastState = states[size];
+            var lastPriority = priorities[size];
+            var lastDepth = depths[size];
+            var lastCost = costs[size];
+            var index = 0;
+            while (true) {
+                var child = index * 2 + 1;
+                if (child >= size) {
+                    break;
+                }
+                if (child + 1 < size && priorities[child + 1] < priorities[child]) {
+                    child++;
+                }
+                if (lastPriority <= priorities[child]) {
+                    break;
+                }
+                move(child, index);
+                index = child;
+            }
+            if (size > 0) {
+                states[index] = lastState;
+                priorities[index] = lastPriority;
+                depths[index] = lastDepth;
+                costs[index] = lastCost;
+            }
+            costCounts[cost]--;
+            while (lowestCost < costCounts.length && costCounts[lowestCost] == 0) {
+                lowestCost++;
+            }
+            poppedDepth = depth;
+            return state;
+        }
+
+        /**
+         * {@return the smallest unweighted cost {@code g + h} of the entries}
+         */
+        private int lowestCost() {
+            return size == 0 ? Integer.MAX_VALUE : lowestCost;
+        }
+
+        private int poppedDepth() {
+            return poppedDepth;
+        }
+
+        private void move(int from, int to) {
+            states[to] = states[from];
+            priorities[to] = priorities[from];
+            depths[to] = depths[from];
+            costs[to] = costs[from];
+        }
+    }
+}
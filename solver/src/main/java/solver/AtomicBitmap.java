@@ -0,0 +1,103 @@
+package solver;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+/**
+ * Fixed-size bitmap whose bits can be set from many threads at once.
+ * {@link #set} tells the caller whether it was the one that set the bit, so exactly one thread wins
+ * every index.
+ *
+ * <p>The words live off-heap in direct buffers of at most {@link #CHUNK_BYTES} bytes each and are
+ * updated with compare-and-exchange through a {@link VarHandle}, so a bitmap of billions of states
+ * is neither scanned nor copied by the garbage collector. Direct buffers count against
+ * {@code -XX:MaxDirectMemorySize}, which defaults to the maximum heap size, so a bitmap of more bits than
+ * eight times the heap needs that flag raised. Their memory is only given back when the bitmap is
+ * garbage collected, so a bitmap is meant to be {@link #clear cleared} and reused rather than replaced.
+ */
+final class AtomicBitmap {
+    /**
+     * Number of bytes of one buffer.
+     */
+    static final int CHUNK_BYTES = 1 << 30;
+
+    private static final VarHandle WORDS = MethodHandles.byteBufferViewVarHandle(long[].class, ByteOrder.nativeOrder());
+    private static final int CHUNK_SHIFT = Integer.numberOfTrailingZeros(CHUNK_BYTES);
+    private static final byte[] ZEROS = new byte[1 << 12];
+
+    private final ByteBuffer[] chunks;
+    private final long size;
+
+    /**
+     * Creates a bitmap with every bit clear.
+     * @param size number of bits.
+     */
+    AtomicBitmap(long size) {
+        if (size < 0) {
+            throw new IllegalArgumentException(String.format("Invalid size: %d", size));
+        }
+        var bytes = (size + Long.SIZE - 1) / Long.SIZE * Long.BYTES;
+        this.chunks = new ByteBuffer[(int) ((bytes + CHUNK_BYTES - 1) >>> CHUNK_SHIFT)];
+        for (var chunk = 0; chunk < chunks.length; chunk++) {
+            var length = (int) Math.min(CHUNK_BYTES, bytes - ((long) chunk << CHUNK_SHIFT));
+            chunks[chunk] = ByteBuffer.allocateDirect(length + Long.BYTES).alignedSlice(Long.BYTES);
+        }
+        this.size = size;
+    }
+
+    /**
+     * Method for setting a bit.
+     * @param index index of the bit.
+     * @return true if the bit was clear and this call set it.
+     */
+    boolean set(long index) {
+        var chunk = chunkOf(index);
+        var offset = offsetOf(index);
+        var bit = 1L << index;
+        var current = (long) WORDS.getVolatile(chunk, offset);
+        while ((current & bit) == 0) {
+            var witness = (long) WORDS.compareAndExchange(chunk, offset, current, current | bit);
+            if (witness == current) {
+                return true;
+            }
+            current = witness;
+        }
+        return false;
+    }
+
+    /**
+     * Method for clearing every bit; it must not run concurrently with {@link #set}.
+     */
+    void clear() {
+        for (var chunk : chunks) {
+            for (var offset = 0; offset < chunk.capacity(); offset += ZEROS.length) {
+                chunk.put(offset, ZEROS, 0, Math.min(ZEROS.length, chunk.capacity() - offset));
+            }
+        }
+    }
+
+    /**
+     * {@return true if the bit is set}
+     * @param index index of the bit.
+     */
+    boolean get(long index) {
+        return ((long) WORDS.getVolatile(chunkOf(index), offsetOf(index)) & (1L << index)) != 0;
+    }
+
+    /**
+     * {@return the number of bits}
+     */
+    long size() {
+        return size;
+    }
+
+    private ByteBuffer chunkOf(long index) {
+        return chunks[(int) (index / Long.SIZE * Long.BYTES >>> CHUNK_SHIFT)];
+    }
+
+    private static int offsetOf(long index) {
+        return (int) (index / Long.SIZE * Long.BYTES & (CHUNK_BYTES - 1));
+    }
+}
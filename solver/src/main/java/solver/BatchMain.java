@@ -0,0 +1,69 @@
+package solver;
+
+import model.PuzzleMetrics;
+import model.PuzzleState;
+import org.tinylog.Logger;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+
+/**
+ * Command line entry point of {@link BatchSolver}.
+ * Reads one start state per line from a file or from standard input (blank lines and lines starting
+ * with {@code #} are skipped) and prints one line per state as soon as it is solved:
+ * the line number, the number of moves ({@code -1} if unsolvable) and the moves.
+ *
+ * <p>Usage: {@code BatchMain [--table FILE] [INPUT]}; the distance table file is created when missing.
+ */
+public class BatchMain {
+    public static void main(String[] args) throws IOException {
+        PuzzleMetrics.registerIfEnabled();
+        Path tablePath = null;
+        Path input = null;
+        for (var index = 0; index < args.length; index++) {
+            var argument = args[index];
+            if (argument.equals("--table")) {
+                if (index + 1 == args.length) {
+                    throw new IllegalArgumentException(String.format("Missing value of option: %s", argument));
+                }
+                tablePath = Path.of(args[++index]);
+            } else if (input == null) {
+                input = Path.of(argument);
+            } else {
+                throw new IllegalArgumentException(String.format("Unexpected argument: %s", argument));
+            }
+        }
+        var solver = tablePath == null ? new BatchSolver() : new BatchSolver(DistanceDatabase.loadOrBuild(tablePath));
+
+        var starts = new ArrayList<PuzzleState>();
+        var lineNumbers = new ArrayList<Integer>();
+        try (var reader = input == null
+                ? new BufferedReader(new InputStreamReader(System.in))
+                : Files.newBufferedReader(input)) {
+            var lineNumber = 0;
+            for (var line = reader.readLine(); line != null; line = reader.readLine()) {
+                lineNumber++;
+                if (line.isBlank() || line.startsWith("#")) {
+                    continue;
+                }
+                try {
+                    starts.add(BatchSolver.parse(line));
+                    lineNumbers.add(lineNumber);
+                } catch (IllegalArgumentException e) {
+                    Logger.warn("Skipping line {}: {}", lineNumber, e.getMessage());
+                }
+            }
+        }
+
+        var out = System.out;
+        solver.solveAll(starts, result -> out.println(result.solution()
+                .map(moves -> String.format("%d\t%d\t%s", lineNumbers.get(result.index()), moves.size(),
+                        BatchSolver.format(moves)))
+                .orElseGet(() -> String.format("%d\t-1", lineNumbers.get(result.index())))));
+        out.flush();
+    }
+}
@@ -0,0 +1,17 @@
+package solver;
+
+import model.Position;
+import model.PuzzleState;
+import puzzle.TwoPhaseMoveState.TwoPhaseMove;
+
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Outcome of one start state of a {@link BatchSolver} run.
+ * @param index position of the start state in the input.
+ * @param start start state.
+ * @param solution shortest solution, or empty Optional if the state cannot be solved.
+ */
+public record BatchResult(int index, PuzzleState start, Optional<List<TwoPhaseMove<Position>>> solution) {
+}
@@ -0,0 +1,222 @@
+package solver;
+
+import model.Direction;
+import model.PackedState;
+import model.Position;
+import model.PuzzleMetrics;
+import model.PuzzleState;
+import org.tinylog.Logger;
+import puzzle.TwoPhaseMoveState.TwoPhaseMove;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+import java.util.regex.Pattern;
+
+/**
+ * Solver for many start states at once.
+ * Every start state is solved on its own virtual thread and handed to the caller as soon as it is
+ * done. States are reduced to their {@link PackedState#representative representative}, so identical
+ * and symmetric inputs are solved once and the moves are mapped back onto each input. With a
+ * {@link DistanceTable} a solution is read off the table move by move; without one every
+ * representative is solved by {@link PackedBreadthFirstSearch}.
+ *
+ * <p>Solutions are cached per representative up to a capacity, beyond which new representatives are
+ * solved without being kept, so a long-running process does not grow without bound. A representative
+ * whose solving fails is not cached, so the next query of it is solved again.
+ */
+public final class BatchSolver {
+    /**
+     * Number of representatives cached by default.
+     */
+    public static final int DEFAULT_CACHE_CAPACITY = 1 << 16;
+
+    private static final Pattern POSITION = Pattern.compile("\\(\\s*(-?\\d+)\\s*,\\s*(-?\\d+)\\s*\\)");
+
+    private final DistanceTable table;
+    private final int cacheCapacity;
+    private final ConcurrentHashMap<Long, CompletableFuture<Optional<int[]>>> solutions = new ConcurrentHashMap<>();
+
+    /**
+     * Creates a solver that searches every distinct state.
+     */
+    public BatchSolver() {
+        this(null);
+    }
+
+    /**
+     * Creates a solver reading solutions off a shared table.
+     * @param table read-only distance table, or {@code null} to search every distinct state.
+     */
+    public BatchSolver(DistanceTable table) {
+        this(table, DEFAULT_CACHE_CAPACITY);
+    }
+
+    /**
+     * Creates a solver reading solutions off a shared table and caching a limited number of them.
+     * @param table read-only distance table, or {@code null} to search every distinct state.
+     * @param cacheCapacity maximum number of cached representatives, concurrent calls may exceed it by
+     * the number of threads racing to insert.
+     */
+    public BatchSolver(DistanceTable table, int cacheCapacity) {
+        if (cacheCapacity < 0) {
+            throw new IllegalArgumentException(String.format("Invalid cache capacity: %d", cacheCapacity));
+        }
+        this.table = table;
+        this.cacheCapacity = cacheCapacity;
+    }
+
+    /**
+     * Method for solving every start state concurrently.
+     * The sink is called from the solving threads, one call at a time, in the order the states finish.
+     * A state whose solving or sink call fails does not stop the others; once every state is done the
+     * first failure is rethrown, with the later ones attached as suppressed exceptions.
+     * @param starts start states, the index of a result is the position of its state in this list.
+     * @param sink receiver of the results.
+     */
+    public void solveAll(List<PuzzleState> starts, Consumer<BatchResult> sink) {
+        var lock = new Object();
+        var tasks = new ArrayList<Future<?>>(starts.size());
+        try (var executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (var index = 0; index < starts.size(); index++) {
+                var position = index;
+                tasks.add(executor.submit(() -> {
+                    var result = solve(position, starts.get(position));
+                    synchronized (lock) {
+                        sink.accept(result);
+                    }
+                }));
+            }
+        }
+        Logger.info("Solved {} start states, {} distinct", starts.size(), solutions.size());
+        RuntimeException failure = null;
+        for (var task : tasks) {
+            if (task.state() != Future.State.FAILED) {
+                continue;
+            }
+            var cause = task.exceptionNow();
+            if (failure == null) {
+                failure = cause instanceof RuntimeException e ? e : new IllegalStateException(cause);
+            } else {
+                failure.addSuppressed(cause);
+            }
+        }
+        if (failure != null) {
+            throw failure;
+        }
+    }
+
+    /**
+     * Method for solving one start state, reusing the solution of an equivalent state when known.
+     * @param index index of the state in the input.
+     * @param start start state, it is not modified.
+     * @return result of the state.
+     */
+    public BatchResult solve(int index, PuzzleState start) {
+        var packed = PackedState.pack(start);
+        var symmetry = PackedState.representativeSymmetry(packed);
+        var representative = PackedState.representative(packed);
+        var known = solutions.get(representative);
+        if (known == null) {
+            var future = new CompletableFuture<Optional<int[]>>();
+            if (solutions.size() < cacheCapacity) {
+                known = solutions.putIfAbsent(representative, future);
+            }
+            if (known == null) {
+                try {
+                    future.complete(solveRepresentative(representative));
+                } catch (RuntimeException e) {
+                    solutions.remove(representative, future);
+                    future.completeExceptionally(e);
+                }
+                known = future;
+            }
+        }
+        var inverse = PackedState.inverseSymmetry(symmetry);
+        return new BatchResult(index, start, known.join().map(moves -> concreteMoves(moves, inverse)));
+    }
+
+    /**
+     * {@return the number of distinct representatives cached so far}
+     */
+    public int distinctStates() {
+        return solutions.size();
+    }
+
+    /**
+     * Method for reading a start state written as positions, for example
+     * {@code (0, 0) (0, 1) (0, 2) (4, 0) (4, 1) (4, 2)}, greens first.
+     * @param line text holding one position per piece.
+     * @return new PuzzleState.
+     * @throws IllegalArgumentException if the line does not describe a valid state.
+     */
+    public static PuzzleState parse(String line) {
+        var matcher = POSITION.matcher(line);
+        var positions = new ArrayList<Position>();
+        var occupied = 0;
+        while (matcher.find()) {
+            var position = new Position(Integer.parseInt(matcher.group(1)), Integer.parseInt(matcher.group(2)));
+            var cell = PackedState.cellOf(position);
+            if (cell != PackedState.NONE && (occupied & (1 << cell)) != 0) {
+                throw new IllegalArgumentException(String.format("Position %s is used twice", position));
+            }
+            if (cell != PackedState.NONE) {
+                occupied |= 1 << cell;
+            }
+            positions.add(position);
+        }
+        return new PuzzleState(positions.toArray(Position[]::new));
+    }
+
+    /**
+     * Method for writing moves as text, for example {@code (0, 1) DOWN, (1, 1) DOWN}.
+     * @param moves moves to write.
+     * @return the moves separated by commas.
+     */
+    public static String format(List<TwoPhaseMove<Position>> moves) {
+        return moves.stream()
+                .map(move -> move.from() + " " + Direction.of(move.to().row(), move.to().column()).name())
+                .collect(Collectors.joining(", "));
+    }
+
+    private Optional<int[]> solveRepresentative(long representative) {
+        if (table != null) {
+            PuzzleMetrics.get().solved();
+            var distance = table.distance(representative);
+            if (distance == DistanceTable.UNREACHABLE) {
+                return Optional.empty();
+            }
+            var moves = new int[distance];
+            var current = representative;
+            for (var step = 0; step < distance; step++) {
+                moves[step] = table.hintMove(current);
+                current = PackedState.apply(current, moves[step]);
+            }
+            return Optional.of(moves);
+        }
+        var state = PackedState.unpack(representative);
+        return new PackedBreadthFirstSearch(StateReduction.SYMMETRY).solve(state).map(solution -> {
+            var moves = new int[solution.size()];
+            for (var step = 0; step < moves.length; step++) {
+                var move = solution.get(step);
+                var direction = Direction.of(move.to().row(), move.to().column());
+                moves[step] = PackedState.cellMove(PackedState.cellOf(move.from()), direction.ordinal());
+            }
+            return moves;
+        });
+    }
+
+    private static List<TwoPhaseMove<Position>> concreteMoves(int[] moves, int symmetry) {
+        var concrete = new ArrayList<TwoPhaseMove<Position>>(moves.length);
+        for (var move : moves) {
+            concrete.add(PackedState.toTwoPhaseMove(PackedState.transformMove(move, symmetry)));
+        }
+        return concrete;
+    }
+}
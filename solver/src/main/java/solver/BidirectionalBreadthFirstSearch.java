@@ -0,0 +1,134 @@
+package solver;
+
+import model.PackedState;
+import model.Position;
+import model.PuzzleMetrics;
+import model.PuzzleState;
+import puzzle.TwoPhaseMoveState.TwoPhaseMove;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Breadth-first search grown from the start state and from every solved state at the same time.
+ * Every move can be undone, so the backward search uses the same moves. The smaller frontier is
+ * expanded one whole layer at a time, and the first state reached by both searches lies on a
+ * shortest solution.
+ */
+public class BidirectionalBreadthFirstSearch {
+    private static final int DIRECTION_COUNT = 4;
+    private static final int EXPECTED_STATES = 1 << 10;
+
+    private final StateReduction reduction;
+    private long expandedNodes;
+
+    /**
+     * Creates a search that tells every piece apart.
+     */
+    public BidirectionalBreadthFirstSearch() {
+        this(StateReduction.NONE);
+    }
+
+    /**
+     * Creates a search.
+     * @param reduction which equivalent states to merge; solutions are still returned as moves of
+     *                  the concrete start state.
+     */
+    public BidirectionalBreadthFirstSearch(StateReduction reduction) {
+        this.reduction = reduction;
+    }
+
+    /**
+     * Method for finding a shortest solution.
+     * @param state start state, it is not modified.
+     * @return shortest solution and the number of expanded states.
+     */
+    public SearchResult search(PuzzleState state) {
+        PuzzleMetrics.get().solved();
+        expandedNodes = 0;
+        var concrete = PackedState.pack(state);
+        if (PackedState.isSolved(concrete)) {
+            return new SearchResult(Optional.of(List.of()), 0);
+        }
+        var startSymmetry = reduction.symmetryOf(concrete);
+        var start = reduction.key(concrete, startSymmetry);
+        var forward = new LongStateTable(EXPECTED_STATES);
+        var forwardFrontier = new LongRingBuffer(EXPECTED_STATES);
+        forward.add(start, start, LongStateTable.value(0, startSymmetry, 0));
+        forwardFrontier.addLast(start);
+        var backward = new LongStateTable(EXPECTED_STATES);
+        var backwardFrontier = new LongRingBuffer(EXPECTED_STATES);
+        for (var solved : PackedState.solvedStates()) {
+            var symmetry = reduction.symmetryOf(solved);
+            var goal = reduction.key(solved, symmetry);
+            if (backward.add(goal, goal, LongStateTable.value(0, symmetry, 0))) {
+                backwardFrontier.addLast(goal);
+            }
+        }
+        while (!forwardFrontier.isEmpty() && !backwardFrontier.isEmpty()) {
+            var meeting = forwardFrontier.size() <= backwardFrontier.size()
+                    ? expandLayer(forward, forwardFrontier, backward)
+                    : expandLayer(backward, backwardFrontier, forward);
+            if (meeting != PackedState.NONE) {
+                var moves = new ArrayList<TwoPhaseMove<Position>>();
+                var toConcrete = forward.pathTo(meeting, moves);
+                appendPathToGoal(backward, meeting, toConcrete, moves);
+                return new SearchResult(Optional.of(moves), expandedNodes);
+            }
+        }
+        return new SearchResult(Optional.empty(), expandedNodes);
+    }
+
+    /**
+     * Expands every state of the current layer of one side.
+     * @return a state reached by both sides or {@link PackedState#NONE}.
+     */
+    private long expandLayer(LongStateTable visited, LongRingBuffer frontier, LongStateTable other) {
+        for (var count = frontier.size(); count > 0; count--) {
+            var current = frontier.removeFirst();
+            var depth = LongStateTable.depthOf(visited.valueAt(visited.slotOf(current)));
+            var occupied = PackedState.occupancy(current);
+            expandedNodes++;
+            for (var piece = 0; piece < PackedState.PIECES_COUNT; piece++) {
+                var from = PackedState.cell(current, piece);
+                for (var direction = 0; direction < DIRECTION_COUNT; direction++) {
+                    var to = PackedState.neighbour(from, direction);
+                    if (to == PackedState.NONE || (occupied & (1 << to)) != 0) {
+                        continue;
+                    }
+                    var moved = PackedState.withCell(current, piece, to);
+                    var symmetry = reduction.symmetryOf(moved);
+                    var child = reduction.key(moved, symmetry);
+                    var value = LongStateTable.value(depth + 1, symmetry, PackedState.cellMove(from, direction));
+                    if (!visited.add(child, current, value)) {
+                        continue;
+                    }
+                    if (other.contains(child)) {
+                        return child;
+                    }
+                    frontier.addLast(child);
+                }
+            }
+        }
+        return PackedState.NONE;
+    }
+
+    /**
+     * Appends the moves from the meeting state to a solved state. Every backward step was recorded
+     * from the parent's side, so it is reversed and mapped through the symmetries collected so far.
+     */
+    private static void appendPathToGoal(LongStateTable backward, long meeting, int toConcrete,
+                                         List<TwoPhaseMove<Position>> moves) {
+        var current = meeting;
+        var slot = backward.slotOf(current);
+        while (backward.parentAt(slot) != current) {
+            var value = backward.valueAt(slot);
+            toConcrete = PackedState.composeSymmetries(toConcrete, LongStateTable.symmetryOf(value));
+            var move = PackedState.reverse(LongStateTable.moveOf(value));
+            moves.add(PackedState.toTwoPhaseMove(PackedState.transformMove(move, toConcrete)));
+            current = backward.parentAt(slot);
+            slot = backward.slotOf(current);
+        }
+    }
+}
@@ -0,0 +1,197 @@
+package solver;
+
+import model.PackedState;
+import model.RepresentativeIndexer;
+import org.tinylog.Logger;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.ForkJoinPool;
+import java.util.zip.CRC32C;
+
+/**
+ * Versioned binary file holding a {@link DistanceTable}.
+ * The file is memory-mapped when loaded, so the distances are paged in lazily and shared through the
+ * page cache by every process that maps the same file. A file below {@link #MAP_THRESHOLD} bytes is
+ * read instead: the first mapping of a process sets up the JDK's memory segment support, which costs
+ * tens of milliseconds, far more than reading a few kilobytes.
+ *
+ * <p>Layout, big-endian:
+ * <pre>
+ * 0   int magic "PZDT"
+ * 4   int format version
+ * 8   int number of cells
+ * 12  int number of pieces
+ * 16  int number of green pieces
+ * 20  int number of entries
+ * 24  int offset of the entries
+ * 28  int number of board symmetries
+ * 32  int CRC32C of every byte after the header
+ * 36  topology, per cell: row, column and the neighbour cell of each direction as bytes
+ * ... entries, one signed byte per symmetry class, see {@link RepresentativeIndexer}
+ * </pre>
+ */
+public final class DistanceDatabase {
+    /**
+     * Size in bytes from which a table file is mapped rather than read.
+     */
+    public static final long MAP_THRESHOLD = 1 << 20;
+
+    private static final int MAGIC = 0x505A4454;
+    private static final int VERSION = 3;
+    private static final int HEADER_SIZE = 36;
+    private static final int CHECKSUM_OFFSET = 32;
+    private static final int DIRECTION_COUNT = 4;
+    private static final int BYTES_PER_CELL = 2 + DIRECTION_COUNT;
+
+    private DistanceDatabase() {
+    }
+
+    /**
+     * Method for writing a table to a file.
+     * The file is written next to {@code path} and moved into place, so readers never see a partial file.
+     * @param table table to write.
+     * @param path target file.
+     * @throws IOException if the file cannot be written.
+     */
+    public static void write(DistanceTable table, Path path) throws IOException {
+        var distances = table.distances();
+        var topology = topology();
+        var dataOffset = HEADER_SIZE + topology.remaining();
+        var header = ByteBuffer.allocate(HEADER_SIZE)
+                .putInt(MAGIC)
+                .putInt(VERSION)
+                .putInt(PackedState.CELL_COUNT)
+                .putInt(PackedState.PIECES_COUNT)
+                .putInt(PackedState.GREEN_COUNT)
+                .putInt(distances.remaining())
+                .putInt(dataOffset)
+                .putInt(PackedState.symmetryCount())
+                .putInt(checksum(topology.duplicate(), distances.duplicate()))
+                .flip();
+
+        var absolute = path.toAbsolutePath();
+        var temporary = Files.createTempFile(absolute.getParent(), absolute.getFileName().toString(), ".tmp");
+        try (var channel = FileChannel.open(temporary, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            var buffers = new ByteBuffer[]{header, topology, distances};
+            while (distances.hasRemaining()) {
+                channel.write(buffers);
+            }
+            channel.force(true);
+        } catch (IOException e) {
+            Files.deleteIfExists(temporary);
+            throw e;
+        }
+        Files.move(temporary, absolute, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        Logger.info("Distance database written to {}", absolute);
+    }
+
+    /**
+     * Method for loading a table file and verifying its checksum.
+     * @param path file written by {@link #write}.
+     * @return table backed by the file.
+     * @throws IOException if the file cannot be read or does not match this board.
+     */
+    public static DistanceTable load(Path path) throws IOException {
+        return load(path, true);
+    }
+
+    /**
+     * Method for loading a table file, mapped unless it is smaller than {@link #MAP_THRESHOLD}.
+     * @param path file written by {@link #write}.
+     * @param verifyChecksum whether to read the whole file to verify its checksum; without it only
+     *                       the header is touched and the entries are paged in on first use.
+     * @return table backed by the file.
+     * @throws IOException if the file cannot be read or does not match this board.
+     */
+    public static DistanceTable load(Path path, boolean verifyChecksum) throws IOException {
+        var indexer = new RepresentativeIndexer();
+        ByteBuffer file;
+        try (var channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            if (channel.size() >= MAP_THRESHOLD) {
+                file = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            } else {
+                file = ByteBuffer.allocate((int) channel.size());
+                while (file.hasRemaining()) {
+                    if (channel.read(file) < 0) {
+                        throw new IOException(String.format("File %s is too short", path));
+                    }
+                }
+                file.flip();
+            }
+        }
+        if (file.capacity() < HEADER_SIZE) {
+            throw new IOException(String.format("File %s is too short", path));
+        }
+        expect(file.getInt(0), MAGIC, "magic number");
+        expect(file.getInt(4), VERSION, "format version");
+        expect(file.getInt(8), PackedState.CELL_COUNT, "number of cells");
+        expect(file.getInt(12), PackedState.PIECES_COUNT, "number of pieces");
+        expect(file.getInt(16), PackedState.GREEN_COUNT, "number of green pieces");
+        expect(file.getInt(20), indexer.size(), "number of entries");
+        var topology = topology();
+        var dataOffset = HEADER_SIZE + topology.remaining();
+        expect(file.getInt(24), dataOffset, "offset of entries");
+        expect(file.getInt(28), PackedState.symmetryCount(), "number of symmetries");
+        expect(file.capacity(), dataOffset + indexer.size(), "file size");
+        if (!file.slice(HEADER_SIZE, topology.remaining()).equals(topology)) {
+            throw new IOException("Board topology of the file does not match");
+        }
+        var distances = file.slice(dataOffset, indexer.size());
+        if (verifyChecksum) {
+            var stored = file.getInt(CHECKSUM_OFFSET);
+            if (stored != checksum(topology, distances.duplicate())) {
+                throw new IOException(String.format("Checksum mismatch in %s", path));
+            }
+        }
+        return new DistanceTable(indexer, distances);
+    }
+
+    /**
+     * Method for loading the table file or creating it when it is missing or unusable.
+     * @param path table file.
+     * @return table backed by the file.
+     * @throws IOException if the file cannot be written or read back.
+     */
+    public static DistanceTable loadOrBuild(Path path) throws IOException {
+        if (Files.exists(path)) {
+            try {
+                return load(path);
+            } catch (IOException e) {
+                Logger.warn("Rebuilding distance database: {}", e.getMessage());
+            }
+        }
+        write(DistanceTable.build(ForkJoinPool.commonPool()), path);
+        return load(path, false);
+    }
+
+    private static ByteBuffer topology() {
+        var topology = ByteBuffer.allocate(PackedState.CELL_COUNT * BYTES_PER_CELL);
+        for (var cell = 0; cell < PackedState.CELL_COUNT; cell++) {
+            var position = PackedState.position(cell);
+            topology.put((byte) position.row()).put((byte) position.column());
+            for (var direction = 0; direction < DIRECTION_COUNT; direction++) {
+                topology.put((byte) PackedState.neighbour(cell, direction));
+            }
+        }
+        return topology.flip();
+    }
+
+    private static int checksum(ByteBuffer topology, ByteBuffer distances) {
+        var crc = new CRC32C();
+        crc.update(topology);
+        crc.update(distances);
+        return (int) crc.getValue();
+    }
+
+    private static void expect(int actual, int expected, String field) throws IOException {
+        if (actual != expected) {
+            throw new IOException(String.format("Unexpected %s: %d instead of %d", field, actual, expected));
+        }
+    }
+}
@@ -0,0 +1,180 @@
+package solver;
+
+import model.PackedState;
+import model.Position;
+import model.PuzzleState;
+import model.RepresentativeIndexer;
+import puzzle.TwoPhaseMoveState.TwoPhaseMove;
+
+import java.nio.ByteBuffer;
+import java.util.Optional;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Exact distance-to-solve of every state of the board.
+ * Built once by a breadth-first search started from every solved state at the same time; since every
+ * move can be undone, the distance of a state is the length of its shortest solution. Symmetric states
+ * and states that only swap same-colour pieces are equally far from the solved states, so one distance
+ * is stored per symmetry class, see {@link RepresentativeIndexer}. Built tables keep their distances in
+ * a direct buffer, outside the garbage-collected heap; it takes one byte per class out of the
+ * {@code -XX:MaxDirectMemorySize} limit, which defaults to the maximum heap size, until the table is
+ * garbage collected, so a table is meant to be built once and shared.
+ */
+public final class DistanceTable {
+    /**
+     * Distance of the states from which no solved state can be reached.
+     */
+    public static final int UNREACHABLE = -1;
+
+    private static final int DIRECTION_COUNT = 4;
+
+    private final RepresentativeIndexer indexer;
+    private final ByteBuffer distances;
+
+    /**
+     * Creates a table over the given distances.
+     * @param indexer indexer of the symmetry classes.
+     * @param distances one signed byte per class index, may be a mapped file region.
+     */
+    DistanceTable(RepresentativeIndexer indexer, ByteBuffer distances) {
+        if (distances.capacity() != indexer.size()) {
+            throw new IllegalArgumentException(String.format("Expected %d distances", indexer.size()));
+        }
+        this.indexer = indexer;
+        this.distances = distances;
+    }
+
+    /**
+     * Method for computing the table.
+     * @return table holding the distance of every state.
+     */
+    public static DistanceTable build() {
+        return build(new RepresentativeIndexer());
+    }
+
+    /**
+     * Method for computing the table with an existing indexer.
+     * @param indexer indexer of the symmetry classes.
+     * @return table holding the distance of every state.
+     */
+    static DistanceTable build(RepresentativeIndexer indexer) {
+        var distances = unreachable(indexer.size());
+        var frontier = new LongRingBuffer(indexer.size());
+        for (var solved : PackedState.solvedStates()) {
+            var representative = PackedState.representative(solved);
+            var index = indexer.indexOfRepresentative(representative);
+            if (distances.get(index) == UNREACHABLE) {
+                distances.put(index, (byte) 0);
+                frontier.addLast(representative);
+            }
+        }
+        while (!frontier.isEmpty()) {
+            var current = frontier.removeFirst();
+            var next = (byte) (distances.get(indexer.indexOfRepresentative(current)) + 1);
+            var occupied = PackedState.occupancy(current);
+            for (var piece = 0; piece < PackedState.PIECES_COUNT; piece++) {
+                var from = PackedState.cell(current, piece);
+                for (var direction = 0; direction < DIRECTION_COUNT; direction++) {
+                    var to = PackedState.neighbour(from, direction);
+                    if (to == PackedState.NONE || (occupied & (1 << to)) != 0) {
+                        continue;
+                    }
+                    var child = PackedState.representative(PackedState.withCell(current, piece, to));
+                    var index = indexer.indexOfRepresentative(child);
+                    if (distances.get(index) == UNREACHABLE) {
+                        distances.put(index, next);
+                        frontier.addLast(child);
+                    }
+                }
+            }
+        }
+        return new DistanceTable(indexer, distances);
+    }
+
+    /**
+     * Method for computing the table with every level of the search expanded in parallel,
+     * see {@link ParallelLevelExpansion}.
+     * @param pool pool expanding the levels.
+     * @return table holding the distance of every state.
+     */
+    public static DistanceTable build(ForkJoinPool pool) {
+        var indexer = new RepresentativeIndexer();
+        var distances = unreachable(indexer.size());
+        new ParallelLevelExpansion(pool, indexer.size(), PackedState::representative, indexer::indexOfRepresentative)
+                .run(PackedState.solvedStates(), (index, packed, move, depth) -> {
+                    distances.put((int) index, (byte) depth);
+                    return false;
+                });
+        return new DistanceTable(indexer, distances);
+    }
+
+    /**
+     * {@return a direct buffer of the given size with every distance {@link #UNREACHABLE}}
+     * @param size number of distances.
+     */
+    private static ByteBuffer unreachable(int size) {
+        var distances = ByteBuffer.allocateDirect(size);
+        for (var index = 0; index < size; index++) {
+            distances.put(index, (byte) UNREACHABLE);
+        }
+        return distances;
+    }
+
+    /**
+     * {@return the number of moves of the shortest solution or {@link #UNREACHABLE}}
+     * @param packed packed state, see {@link PackedState}.
+     */
+    public int distance(long packed) {
+        return distances.get(indexer.indexOf(packed));
+    }
+
+    /**
+     * {@return the number of moves of the shortest solution or {@link #UNREACHABLE}}
+     * @param state state of the board.
+     */
+    public int distance(PuzzleState state) {
+        return distance(PackedState.pack(state));
+    }
+
+    /**
+     * Method for finding the first move of a shortest solution.
+     * @param packed packed state, see {@link PackedState}.
+     * @return encoded move, see {@link PackedState#cellMove}, or {@link PackedState#NONE} if the state
+     * is solved or unsolvable.
+     */
+    public int hintMove(long packed) {
+        var distance = distance(packed);
+        if (distance <= 0) {
+            return PackedState.NONE;
+        }
+        var occupied = PackedState.occupancy(packed);
+        for (var piece = 0; piece < PackedState.PIECES_COUNT; piece++) {
+            var from = PackedState.cell(packed, piece);
+            for (var direction = 0; direction < DIRECTION_COUNT; direction++) {
+                var to = PackedState.neighbour(from, direction);
+                if (to != PackedState.NONE && (occupied & (1 << to)) == 0
+                        && distance(PackedState.withCell(packed, piece, to)) == distance - 1) {
+                    return PackedState.cellMove(from, direction);
+                }
+            }
+        }
+        throw new IllegalStateException("Distance table is inconsistent");
+    }
+
+    /**
+     * Method for finding the first move of a shortest solution.
+     * @param state state of the board.
+     * @return optimal move, or empty Optional if the state is solved or unsolvable.
+     */
+    public Optional<TwoPhaseMove<Position>> hint(PuzzleState state) {
+        var move = hintMove(PackedState.pack(state));
+        return move == PackedState.NONE ? Optional.empty() : Optional.of(PackedState.toTwoPhaseMove(move));
+    }
+
+    /**
+     * {@return read-only view of the distances, one signed byte per class index}
+     */
+    ByteBuffer distances() {
+        return distances.asReadOnlyBuffer();
+    }
+}
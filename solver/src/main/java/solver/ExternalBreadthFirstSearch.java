@@ -0,0 +1,691 @@
+package solver;
+
+import model.BoardTopology;
+import model.Position;
+import model.PuzzleMetrics;
+import model.PuzzleState;
+import org.tinylog.Logger;
+import puzzle.TwoPhaseMoveState.TwoPhaseMove;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.PriorityQueue;
+
+/**
+ * Breadth-first search that keeps its layers on disk instead of in memory, for boards whose state space
+ * does not fit on the heap.
+ * A state is stored as a {@code long} with the cells of each colour sorted, so states that only differ in
+ * which piece of a colour stands where are one state. Every layer is a file of such states in ascending
+ * order.
+ *
+ * <p>Layer {@code k + 1} is built by streaming layer {@code k} through a buffer of half the memory
+ * budget. Each time the buffer fills, the children in it are sorted, deduplicated and written as a run
+ * file. The runs are then merged. A child is only new if it is missing from layers {@code k} and
+ * {@code k - 1}, since every move can be taken back, so the merge also streams those two layers
+ * alongside the runs and drops what they contain. No layer is ever loaded whole. The merge opens at most
+ * as many runs as the other half of the budget has room for read buffers, up to a fixed limit; more runs
+ * are merged in groups into longer runs first, so neither memory nor file handles grow with the size of
+ * a layer.
+ *
+ * <p>The file buffers are slices of one direct buffer that a call of {@link #solve} allocates once and
+ * reuses for every layer. Direct memory counts against {@code -XX:MaxDirectMemorySize}, which defaults to
+ * the maximum heap size, and is only given back when the buffer is garbage collected, so the heap and
+ * the direct memory limit both need room for half the budget.
+ *
+ * <p>A layer file is written to a temporary file and moved into place, and then the checkpoint file
+ * records it as complete. A search started again on the same directory and start state continues after
+ * the last completed layer and discards whatever a crash left behind. A search that finishes removes
+ * its files.
+ */
+public class ExternalBreadthFirstSearch {
+    /**
+     * Smallest accepted heap budget in bytes.
+     */
+    public static final long MIN_HEAP_BUDGET = 1 << 16;
+
+    private static final int MAGIC = 0x505A4246;
+    private static final int VERSION = 1;
+    private static final int CHECKPOINT_SIZE = 24;
+    private static final int DIRECTION_COUNT = 4;
+    private static final int MAX_RUN_LENGTH = 1 << 28;
+    private static final int MIN_BUFFER_SIZE = 1 << 12;
+    private static final int MAX_BUFFER_SIZE = 1 << 22;
+    private static final int MAX_MERGE_FAN_IN = 1 << 8;
+    private static final int READ_SLOT = 0;
+    private static final int PREVIOUS_SLOT = 1;
+    private static final int WRITE_SLOT = 2;
+    private static final int FIRST_RUN_SLOT = 3;
+    private static final String CHECKPOINT = "checkpoint";
+
+    private final Path directory;
+    private final long heapBudget;
+    private BoardTopology topology;
+    private ByteBuffer buffers;
+    private int bufferSize;
+    private long expandedStates;
+
+    /**
+     * Creates a search.
+     * @param directory directory for the layer files, created if missing.
+     * @param heapBudget bytes of memory the search may use, at least {@link #MIN_HEAP_BUDGET}; half of it
+     * is heap for sorting children and half is direct memory for file buffers.
+     */
+    public ExternalBreadthFirstSearch(Path directory, long heapBudget) {
+        if (heapBudget < MIN_HEAP_BUDGET) {
+            throw new IllegalArgumentException(String.format("Invalid heap budget: %d", heapBudget));
+        }
+        this.directory = directory;
+        this.heapBudget = heapBudget;
+    }
+
+    /**
+     * Method for finding a shortest solution.
+     * @param state start state, it is not modified.
+     * @return moves leading to a solved state or empty Optional if the puzzle has no solution.
+     * @throws IOException if the layer files cannot be written or read.
+     * @throws IllegalStateException if the pieces of the board do not fit in a {@code long}.
+     */
+    public Optional<List<TwoPhaseMove<Position>>> solve(PuzzleState state) throws IOException {
+        return solve(state, Integer.MAX_VALUE);
+    }
+
+    /**
+     * Method for finding a shortest solution with at most the given number of layers built by this call.
+     * When the limit is reached the files are kept, so a later call continues where this one stopped.
+     * @param state start state, it is not modified.
+     * @param layerLimit maximum number of layers to build.
+     * @return moves leading to a solved state or empty Optional if the puzzle has no solution or the
+     * limit was reached first, see {@link #completedLayers}.
+     * @throws IOException if the layer files cannot be written or read.
+     * @throws IllegalStateException if the pieces of the board do not fit in a {@code long}.
+     */
+    public Optional<List<TwoPhaseMove<Position>>> solve(PuzzleState state, int layerLimit) throws IOException {
+        PuzzleMetrics.get().solved();
+        topology = state.getTopology();
+        expandedStates = 0;
+        var start = key(state);
+        if (isSolved(decode(start, new int[topology.pieceCount()]))) {
+            return Optional.of(List.of());
+        }
+        Files.createDirectories(directory);
+        var slots = mergeFanIn() + FIRST_RUN_SLOT;
+        bufferSize = (int) Math.min(MAX_BUFFER_SIZE, (heapBudget - heapBudget / 2) / slots) & -Long.BYTES;
+        buffers = ByteBuffer.allocateDirect(bufferSize * slots);
+        try {
+            return search(start, layerLimit);
+        } finally {
+            buffers = null;
+        }
+    }
+
+    /**
+     * Method for building the layers from the last completed one on, see {@link #solve(PuzzleState, int)}.
+     */
+    private Optional<List<TwoPhaseMove<Position>>> search(long start, int layerLimit) throws IOException {
+        var depth = resume(start);
+        if (depth < 0) {
+            depth = 0;
+            try (var writer = new LongWriter(temporaryOf(layer(0)), buffer(WRITE_SLOT))) {
+                writer.write(start);
+            }
+            commit(layer(0));
+            writeCheckpoint(start, 0);
+        }
+        var runBuffer = new long[(int) Math.min(MAX_RUN_LENGTH, heapBudget / 2 / Long.BYTES)];
+        for (var built = 0; built < layerLimit; built++) {
+            var runs = new ArrayList<Path>();
+            var found = expand(depth, runBuffer, runs);
+            if (found != null) {
+                var solution = pathTo(found[0], depth);
+                solution.add(topology.toTwoPhaseMove((int) found[1], (int) found[2]));
+                deleteFiles();
+                return Optional.of(solution);
+            }
+            var size = merge(depth, runs);
+            if (size == 0) {
+                Logger.info("No solution after {} layers", depth);
+                deleteFiles();
+                return Optional.empty();
+            }
+            depth++;
+            writeCheckpoint(start, depth);
+            Logger.debug("Layer {} has {} states", depth, size);
+        }
+        return Optional.empty();
+    }
+
+    /**
+     * Method for reading how far a previous search of a state got.
+     * @param state start state, it is not modified.
+     * @return depth of the last layer recorded as complete, or -1 if there is no checkpoint of the state.
+     * @throws IOException if the checkpoint cannot be read.
+     */
+    public int completedLayers(PuzzleState state) throws IOException {
+        topology = state.getTopology();
+        return readCheckpoint(key(state));
+    }
+
+    /**
+     * {@return the number of states expanded by the last search}
+     */
+    public long getExpandedStates() {
+        return expandedStates;
+    }
+
+    /**
+     * Method for writing the children of every state of a layer into sorted run files.
+     * @return the parent, cell and direction of a move reaching a solved state, or null if there is none.
+     */
+    private long[] expand(int depth, long[] buffer, List<Path> runs) throws IOException {
+        var cells = new int[topology.pieceCount()];
+        var children = new int[cells.length];
+        var length = 0;
+        try (var reader = new LongReader(layer(depth), buffer(READ_SLOT))) {
+            while (reader.hasNext()) {
+                var current = reader.next();
+                decode(current, cells);
+                expandedStates++;
+                var occupied = 0L;
+                for (var cell : cells) {
+                    occupied |= 1L << cell;
+                }
+                for (var piece = 0; piece < cells.length; piece++) {
+                    for (var direction = 0; direction < DIRECTION_COUNT; direction++) {
+                        var to = topology.neighbour(cells[piece], direction);
+                        if (to == BoardTopology.NONE || (occupied & (1L << to)) != 0) {
+                            continue;
+                        }
+                        System.arraycopy(cells, 0, children, 0, cells.length);
+                        children[piece] = to;
+                        if (isSolved(children)) {
+                            deleteRuns(runs);
+                            return new long[]{current, cells[piece], direction};
+                        }
+                        if (length == buffer.length) {
+                            runs.add(writeRun(buffer, length, depth + 1, runs.size()));
+                            length = 0;
+                        }
+                        buffer[length++] = encode(children);
+                    }
+                }
+            }
+        }
+        if (length > 0) {
+            runs.add(writeRun(buffer, length, depth + 1, runs.size()));
+        }
+        return null;
+    }
+
+    /**
+     * Method for merging the run files of the next layer into its layer file, dropping the states of
+     * the two layers before it.
+     * At most {@link #mergeFanIn} runs are open at once; when there are more, they are first merged
+     * in groups into fewer, longer runs.
+     * @return number of states of the new layer.
+     */
+    private long merge(int depth, List<Path> runs) throws IOException {
+        var fanIn = mergeFanIn();
+        var target = layer(depth + 1);
+        var pending = runs;
+        long size;
+        try {
+            for (var pass = 0; pending.size() > fanIn; pass++) {
+                pending = mergePass(pending, fanIn, depth + 1, pass);
+            }
+            try (var current = new LongReader(layer(depth), buffer(READ_SLOT));
+                 var previous = depth > 0 ? new LongReader(layer(depth - 1), buffer(PREVIOUS_SLOT)) : LongReader.EMPTY;
+                 var writer = new LongWriter(temporaryOf(target), buffer(WRITE_SLOT))) {
+                size = mergeRuns(pending, current, previous, writer);
+            }
+        } finally {
+            deleteRuns(pending);
+        }
+        commit(target);
+        return size;
+    }
+
+    /**
+     * Method for merging every group of {@code fanIn} runs into one run.
+     * @return the merged runs; the given runs are deleted.
+     */
+    private List<Path> mergePass(List<Path> runs, int fanIn, int depth, int pass) throws IOException {
+        var merged = new ArrayList<Path>();
+        try {
+            for (var from = 0; from < runs.size(); from += fanIn) {
+                var run = directory.resolve(String.format("run-%d-p%d-%d.bin", depth, pass, merged.size()));
+                merged.add(run);
+                try (var writer = new LongWriter(run, buffer(WRITE_SLOT))) {
+                    mergeRuns(runs.subList(from, Math.min(runs.size(), from + fanIn)),
+                            LongReader.EMPTY, LongReader.EMPTY, writer);
+                }
+            }
+        } catch (IOException | RuntimeException e) {
+            deleteRuns(merged);
+            throw e;
+        }
+        deleteRuns(runs);
+        Logger.debug("Merged {} runs into {}", runs.size(), merged.size());
+        return merged;
+    }
+
+    /**
+     * Method for writing the distinct values of sorted runs in ascending order, except those present
+     * in either of two sorted exclusion readers.
+     * @return number of values written.
+     */
+    private long mergeRuns(List<Path> runs, LongReader current, LongReader previous, LongWriter writer)
+            throws IOException {
+        var readers = new ArrayList<LongReader>();
+        var size = 0L;
+        try {
+            var queue = new PriorityQueue<LongReader>(Math.max(1, runs.size()), Comparator.comparingLong(LongReader::peek));
+            for (var run : runs) {
+                var reader = new LongReader(run, buffer(FIRST_RUN_SLOT + readers.size()));
+                readers.add(reader);
+                if (reader.hasNext()) {
+                    queue.add(reader);
+                }
+            }
+            var hasLast = false;
+            var last = 0L;
+            while (!queue.isEmpty()) {
+                var reader = queue.poll();
+                var value = reader.next();
+                if (reader.hasNext()) {
+                    queue.add(reader);
+                }
+                if (hasLast && value == last) {
+                    continue;
+                }
+                hasLast = true;
+                last = value;
+                if (!current.skipTo(value) && !previous.skipTo(value)) {
+                    writer.write(value);
+                    size++;
+                }
+            }
+        } finally {
+            for (var reader : readers) {
+                reader.close();
+            }
+        }
+        return size;
+    }
+
+    /**
+     * {@return the number of runs merged at once, so that their buffers and those of the two previous
+     * layers and the output fit in the half of the budget kept for files}
+     */
+    private int mergeFanIn() {
+        return Math.clamp((heapBudget - heapBudget / 2) / MIN_BUFFER_SIZE - FIRST_RUN_SLOT, 2, MAX_MERGE_FAN_IN);
+    }
+
+    /**
+     * {@return the file buffer of the given slot, a slice of the buffers allocated by {@link #solve}}
+     */
+    private ByteBuffer buffer(int slot) {
+        return buffers.slice(slot * bufferSize, bufferSize);
+    }
+
+    /**
+     * Method for walking back from a state of a layer to the start through the layer files.
+     * @return moves from the start to the state.
+     */
+    private List<TwoPhaseMove<Position>> pathTo(long state, int depth) throws IOException {
+        var moves = new ArrayList<TwoPhaseMove<Position>>(depth + 1);
+        var cells = new int[topology.pieceCount()];
+        var parents = new int[cells.length];
+        var probe = ByteBuffer.allocate(Long.BYTES);
+        for (var level = depth - 1; level >= 0; level--) {
+            try (var channel = FileChannel.open(layer(level), StandardOpenOption.READ)) {
+                var parent = findParent(state, channel, cells, parents, probe);
+                moves.add(topology.toTwoPhaseMove((int) parent[1], (int) parent[2]));
+                state = parent[0];
+            }
+        }
+        Collections.reverse(moves);
+        return moves;
+    }
+
+    /**
+     * Method for finding a neighbour of a state in the layer before it.
+     * @return the parent and the cell and direction of the move from the parent to the state.
+     */
+    private long[] findParent(long state, FileChannel layer, int[] cells, int[] parents, ByteBuffer probe)
+            throws IOException {
+        decode(state, cells);
+        var occupied = 0L;
+        for (var cell : cells) {
+            occupied |= 1L << cell;
+        }
+        for (var piece = 0; piece < cells.length; piece++) {
+            for (var direction = 0; direction < DIRECTION_COUNT; direction++) {
+                var to = topology.neighbour(cells[piece], direction);
+                if (to == BoardTopology.NONE || (occupied & (1L << to)) != 0) {
+                    continue;
+                }
+                System.arraycopy(cells, 0, parents, 0, cells.length);
+                parents[piece] = to;
+                var parent = encode(parents);
+                if (contains(layer, parent, probe)) {
+                    return new long[]{parent, to, direction ^ 1};
+                }
+            }
+        }
+        throw new IOException("Layer files are inconsistent");
+    }
+
+    private static boolean contains(FileChannel channel, long value, ByteBuffer probe) throws IOException {
+        var low = 0L;
+        var high = channel.size() / Long.BYTES - 1;
+        while (low <= high) {
+            var middle = (low + high) >>> 1;
+            probe.clear();
+            while (probe.hasRemaining()) {
+                if (channel.read(probe, middle * Long.BYTES + probe.position()) < 0) {
+                    throw new IOException("Unexpected end of layer file");
+                }
+            }
+            var found = probe.getLong(0);
+            if (found < value) {
+                low = middle + 1;
+            } else if (found > value) {
+                high = middle - 1;
+            } else {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private Path writeRun(long[] buffer, int length, int depth, int index) throws IOException {
+        Arrays.sort(buffer, 0, length);
+        var run = directory.resolve(String.format("run-%d-%d.bin", depth, index));
+        try (var writer = new LongWriter(run, buffer(WRITE_SLOT))) {
+            for (var position = 0; position < length; position++) {
+                if (position == 0 || buffer[position] != buffer[position - 1]) {
+                    writer.write(buffer[position]);
+                }
+            }
+        }
+        return run;
+    }
+
+    /**
+     * Method for picking up a previous search of the same start state.
+     * Everything that is not part of the completed layers is deleted; the layers themselves are all
+     * kept, since the solution is traced back through them.
+     * @return depth of the last completed layer, or -1 if the search starts from scratch.
+     */
+    private int resume(long start) throws IOException {
+        var depth = readCheckpoint(start);
+        for (var level = 0; level <= depth; level++) {
+            if (!isComplete(layer(level))) {
+                depth = -1;
+            }
+        }
+        if (depth < 0) {
+            deleteFiles();
+            return -1;
+        }
+        var completed = new HashSet<Path>();
+        for (var level = 0; level <= depth; level++) {
+            completed.add(layer(level));
+        }
+        try (var files = Files.list(directory)) {
+            for (var file : files.toList()) {
+                var name = file.getFileName().toString();
+                if (name.startsWith("run-") || name.endsWith(".tmp")
+                        || name.startsWith("layer-") && !completed.contains(file)) {
+                    Files.delete(file);
+                }
+            }
+        }
+        Logger.info("Resuming search after layer {}", depth);
+        return depth;
+    }
+
+    private int readCheckpoint(long start) throws IOException {
+        var path = directory.resolve(CHECKPOINT);
+        if (!Files.isRegularFile(path) || Files.size(path) != CHECKPOINT_SIZE) {
+            return -1;
+        }
+        var checkpoint = ByteBuffer.wrap(Files.readAllBytes(path));
+        if (checkpoint.getInt(0) != MAGIC || checkpoint.getInt(4) != VERSION
+                || checkpoint.getInt(8) != fingerprint() || checkpoint.getLong(12) != start) {
+            return -1;
+        }
+        return checkpoint.getInt(20);
+    }
+
+    private void writeCheckpoint(long start, int depth) throws IOException {
+        var checkpoint = ByteBuffer.allocate(CHECKPOINT_SIZE)
+                .putInt(MAGIC)
+                .putInt(VERSION)
+                .putInt(fingerprint())
+                .putLong(start)
+                .putInt(depth)
+                .flip();
+        var path = directory.resolve(CHECKPOINT);
+        var temporary = temporaryOf(path);
+        try (var channel = FileChannel.open(temporary, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            while (checkpoint.hasRemaining()) {
+                channel.write(checkpoint);
+            }
+            channel.force(true);
+        }
+        Files.move(temporary, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * {@return hash of the board, so a checkpoint of another board is never resumed}
+     */
+    private int fingerprint() {
+        var hash = topology.cellCount() * 31 + topology.pieceCount();
+        hash = hash * 31 + topology.greenCount();
+        for (var cell = 0; cell < topology.cellCount(); cell++) {
+            for (var direction = 0; direction < DIRECTION_COUNT; direction++) {
+                hash = hash * 31 + topology.neighbour(cell, direction);
+            }
+        }
+        for (var piece = 0; piece < topology.pieceCount(); piece++) {
+            hash = hash * 31 + Long.hashCode(topology.targetCells(piece));
+        }
+        return hash;
+    }
+
+    private void commit(Path path) throws IOException {
+        Files.move(temporaryOf(path), path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    private void deleteFiles() throws IOException {
+        try (var files = Files.list(directory)) {
+            for (var file : files.toList()) {
+                var name = file.getFileName().toString();
+                if (name.startsWith("run-") || name.startsWith("layer-") || name.startsWith(CHECKPOINT)) {
+                    Files.delete(file);
+                }
+            }
+        }
+    }
+
+    private static void deleteRuns(List<Path> runs) throws IOException {
+        for (var run : runs) {
+            Files.deleteIfExists(run);
+        }
+    }
+
+    private static boolean isComplete(Path layer) throws IOException {
+        return Files.isRegularFile(layer) && Files.size(layer) % Long.BYTES == 0;
+    }
+
+    private Path layer(int depth) {
+        return directory.resolve(String.format("layer-%d.bin", depth));
+    }
+
+    private static Path temporaryOf(Path path) {
+        return path.resolveSibling(path.getFileName() + ".tmp");
+    }
+
+    private long key(PuzzleState state) {
+        var packed = state.toPacked();
+        return encode(decode(packed, new int[topology.pieceCount()]));
+    }
+
+    /**
+     * Method for packing cells with the cells of each colour in ascending order.
+     * @param cells cell of each piece, greens first; reordered in place.
+     */
+    private long encode(int[] cells) {
+        Arrays.sort(cells, 0, topology.greenCount());
+        Arrays.sort(cells, topology.greenCount(), cells.length);
+        var bits = topology.bitsPerCell();
+        var packed = 0L;
+        for (var piece = 0; piece < cells.length; piece++) {
+            packed |= (long) cells[piece] << (piece * bits);
+        }
+        return packed;
+    }
+
+    private int[] decode(long packed, int[] cells) {
+        var bits = topology.bitsPerCell();
+        var mask = (1L << bits) - 1;
+        for (var piece = 0; piece < cells.length; piece++) {
+            cells[piece] = (int) (packed >>> (piece * bits) & mask);
+        }
+        return cells;
+    }
+
+    private boolean isSolved(int[] cells) {
+        for (var piece = 0; piece < cells.length; piece++) {
+            if ((topology.targetCells(piece) & (1L << cells[piece])) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Sequential writer of {@code long}s through a borrowed buffer.
+     */
+    private static final class LongWriter implements AutoCloseable {
+        private final FileChannel channel;
+        private final ByteBuffer buffer;
+
+        private LongWriter(Path path, ByteBuffer buffer) throws IOException {
+            this.buffer = buffer.clear();
+            channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                    StandardOpenOption.TRUNCATE_EXISTING);
+        }
+
+        private void write(long value) throws IOException {
+            if (!buffer.hasRemaining()) {
+                flush();
+            }
+            buffer.putLong(value);
+        }
+
+        private void flush() throws IOException {
+            buffer.flip();
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+            buffer.clear();
+        }
+
+        @Override
+        public void close() throws IOException {
+            try (channel) {
+                flush();
+                channel.force(false);
+            }
+        }
+    }
+
+    /**
+     * Sequential reader of {@code long}s through a borrowed buffer.
+     */
+    private static final class LongReader implements AutoCloseable {
+        private static final LongReader EMPTY = new LongReader();
+
+        private final FileChannel channel;
+        private final ByteBuffer buffer;
+        private boolean ended;
+
+        private LongReader() {
+            channel = null;
+            buffer = ByteBuffer.allocate(0);
+            ended = true;
+        }
+
+        private LongReader(Path path, ByteBuffer buffer) throws IOException {
+            channel = FileChannel.open(path, StandardOpenOption.READ);
+            this.buffer = buffer;
+            buffer.limit(0);
+        }
+
+        private boolean hasNext() throws IOException {
+            if (buffer.hasRemaining()) {
+                return true;
+            }
+            if (ended) {
+                return false;
+            }
+            buffer.clear();
+            while (buffer.hasRemaining()) {
+                if (channel.read(buffer) < 0) {
+                    ended = true;
+                    break;
+                }
+            }
+            buffer.flip();
+            return buffer.hasRemaining();
+        }
+
+        private long peek() {
+            return buffer.getLong(buffer.position());
+        }
+
+        private long next() throws IOException {
+            if (!hasNext()) {
+                throw new IOException("Unexpected end of file");
+            }
+            return buffer.getLong();
+        }
+
+        /**
+         * Method for skipping every value below the given one.
+         * @return true if the value itself is present.
+         */
+        private boolean skipTo(long value) throws IOException {
+            while (hasNext()) {
+                var next = peek();
+                if (next >= value) {
+                    return next == value;
+                }
+                buffer.getLong();
+            }
+            return false;
+        }
+
+        @Override
+        public void close() throws IOException {
+            if (channel != null) {
+                channel.close();
+            }
+        }
+    }
+}
@@ -0,0 +1,136 @@
+package solver;
+
+import model.PackedState;
+import model.Position;
+import model.PuzzleMetrics;
+import model.PuzzleState;
+import puzzle.TwoPhaseMoveState.TwoPhaseMove;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Iterative-deepening A* guided by {@link MatchingHeuristic}.
+ * Runs depth-first searches with a growing bound on {@code f = g + h}; only the current path is kept,
+ * so memory use does not depend on the size of the state space. The search walks a single
+ * {@link PuzzleState} with {@link PuzzleState#makeMove(int)} and {@link PuzzleState#unmakeMove(int)}
+ * and reuses one move buffer per depth, so expanding a node allocates nothing.
+ *
+ * <p>States are recorded in a {@link TranspositionTable} under their Zobrist hash together with the
+ * bound and the depth they were reached at. A state reached again in the same iteration at the same
+ * or a larger depth has already been searched with at least as many moves left, so it is skipped.
+ * This also cuts every cycle of moves, which plain IDA* walks again and again.
+ */
+public class IterativeDeepeningAStar {
+    private static final int FOUND = -1;
+    private static final int NO_MOVE = -1;
+    private static final int DEFAULT_TABLE_CAPACITY = 1 << 20;
+
+    private final MatchingHeuristic heuristic = new MatchingHeuristic();
+    private final TranspositionTable table;
+    private int[] path = new int[64];
+    private int[][] moveBuffers = new int[64][PuzzleState.MAX_LEGAL_MOVES];
+    private long expandedNodes;
+
+    /**
+     * Creates a search with its own transposition table.
+     */
+    public IterativeDeepeningAStar() {
+        this(new TranspositionTable(DEFAULT_TABLE_CAPACITY));
+    }
+
+    /**
+     * Creates a search that records the searched states in the given table.
+     * @param table transposition table, cleared at the start of every search.
+     */
+    public IterativeDeepeningAStar(TranspositionTable table) {
+        this.table = table;
+    }
+
+    /**
+     * Method for finding a shortest solution.
+     * The search does not terminate if the state cannot be solved.
+     * @param state start state, it is not modified.
+     * @return shortest solution and the number of expanded states.
+     */
+    public SearchResult search(PuzzleState state) {
+        PuzzleMetrics.get().solved();
+        var current = state.clone();
+        expandedNodes = 0;
+        table.clear();
+        var bound = heuristic.estimate(current.toPacked());
+        while (true) {
+            var result = search(current, NO_MOVE, 0, bound);
+            if (result >= 0) {
+                bound = result;
+                continue;
+            }
+            return new SearchResult(Optional.of(solution(state, -result - 1)), expandedNodes);
+        }
+    }
+
+    /**
+     * Depth-first search below the current state, which is restored before returning.
+     * @return the smallest {@code f} above the bound, or {@code -(length + 1)} if a solution was found.
+     */
+    private int search(PuzzleState current, int lastMove, int g, int bound) {
+        var packed = current.toPacked();
+        var f = g + heuristic.estimate(packed);
+        if (f > bound) {
+            return f;
+        }
+        if (PackedState.isSolved(packed)) {
+            return FOUND - g;
+        }
+        var hash = current.zobristHash();
+        var entry = table.probe(hash);
+        if (entry != TranspositionTable.MISSING && TranspositionTable.boundOf(entry) == bound
+                && TranspositionTable.depthOf(entry) <= g) {
+            return Integer.MAX_VALUE;
+        }
+        table.store(hash, TranspositionTable.entry(bound, g));
+        expandedNodes++;
+        if (g == path.length) {
+            path = Arrays.copyOf(path, path.length * 2);
+            moveBuffers = Arrays.copyOf(moveBuffers, moveBuffers.length * 2);
+            for (var depth = g; depth < moveBuffers.length; depth++) {
+                moveBuffers[depth] = new int[PuzzleState.MAX_LEGAL_MOVES];
+            }
+        }
+        var next = Integer.MAX_VALUE;
+        var moves = moveBuffers[g];
+        var count = current.getLegalMoves(moves);
+        for (var index = 0; index < count; index++) {
+            var move = moves[index];
+            if (lastMove != NO_MOVE && move == PuzzleState.reverseMove(lastMove)) {
+                continue;
+            }
+            path[g] = move;
+            current.makeMove(move);
+            var result = search(current, move, g + 1, bound);
+            current.unmakeMove(move);
+            if (result < 0) {
+                return result;
+            }
+            next = Math.min(next, result);
+        }
+        return next;
+    }
+
+    private List<TwoPhaseMove<Position>> solution(PuzzleState start, int length) {
+        var state = start.clone();
+        var moves = new ArrayList<TwoPhaseMove<Position>>(length);
+        for (var index = 0; index < length; index++) {
+            var piece = PuzzleState.pieceOfMove(path[index]);
+            var direction = PuzzleState.directionOfMove(path[index]);
+            moves.add(new TwoPhaseMove<>(
+                    state.getPosition(piece),
+                    new Position(direction.getRowChange(), direction.getColChange())
+            ));
+            state.makeMove(path[index]);
+        }
+        return moves;
+    }
+}
@@ -0,0 +1,92 @@
+package solver;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Lock-free histogram of latencies in nanoseconds with logarithmic buckets.
+ * Every power of two is split into {@link #SUB_BUCKETS} equal buckets, so a reported percentile is at
+ * most about 12% above the recorded value whatever its magnitude, and recording costs one atomic add.
+ */
+final class LatencyHistogram {
+    /**
+     * Number of buckets per power of two.
+     */
+    static final int SUB_BUCKETS = 8;
+
+    private static final int SUB_BITS = Integer.numberOfTrailingZeros(SUB_BUCKETS);
+
+    private final AtomicLongArray buckets = new AtomicLongArray(Long.SIZE * SUB_BUCKETS);
+    private final LongAdder count = new LongAdder();
+    private final LongAdder total = new LongAdder();
+
+    /**
+     * Method for recording one latency.
+     * @param nanos latency in nanoseconds, negative values count as zero.
+     */
+    void record(long nanos) {
+        var value = Math.max(0, nanos);
+        buckets.incrementAndGet(bucketOf(value));
+        count.increment();
+        total.add(value);
+    }
+
+    /**
+     * {@return the number of recorded latencies}
+     */
+    long count() {
+        return count.sum();
+    }
+
+    /**
+     * {@return the mean of the recorded latencies in nanoseconds, 0 if there are none}
+     */
+    long mean() {
+        var recorded = count.sum();
+        return recorded == 0 ? 0 : total.sum() / recorded;
+    }
+
+    /**
+     * {@return the upper edge of the bucket holding the given percentile in nanoseconds, 0 if nothing was recorded}
+     * @param percentile percentile between 0 and 100.
+     */
+    long percentile(double percentile) {
+        var counts = new long[buckets.length()];
+        var recorded = 0L;
+        for (var bucket = 0; bucket < counts.length; bucket++) {
+            counts[bucket] = buckets.get(bucket);
+            recorded += counts[bucket];
+        }
+        if (recorded == 0) {
+            return 0;
+        }
+        var rank = Math.max(1, (long) Math.ceil(recorded * percentile / 100));
+        var seen = 0L;
+        for (var bucket = 0; bucket < counts.length; bucket++) {
+            seen += counts[bucket];
+            if (seen >= rank) {
+                return upperEdge(bucket);
+            }
+        }
+        return upperEdge(counts.length - 1);
+    }
+
+    private static int bucketOf(long value) {
+        if (value < SUB_BUCKETS) {
+            return (int) value;
+        }
+        var exponent = Long.SIZE - 1 - Long.numberOfLeadingZeros(value);
+        var mantissa = (int) (value >>> (exponent - SUB_BITS)) & (SUB_BUCKETS - 1);
+        return (exponent - SUB_BITS + 1) * SUB_BUCKETS + mantissa;
+    }
+
+    private static long upperEdge(int bucket) {
+        if (bucket < SUB_BUCKETS) {
+            return bucket;
+        }
+        var exponent = bucket / SUB_BUCKETS + SUB_BITS - 1;
+        var mantissa = bucket % SUB_BUCKETS;
+        var width = 1L << (exponent - SUB_BITS);
+        return (1L << exponent) + (mantissa + 1) * width - 1;
+    }
+}
@@ -0,0 +1,97 @@
+package solver;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.LongBuffer;
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Growable list of packed states kept off-heap in direct buffers of {@link #CHUNK_LONGS} elements.
+ * Blocks are appended from many threads at once: {@link #append} reserves a range with one atomic
+ * add and allocates the chunks it needs, so the memory follows the number of states actually
+ * appended instead of an upper bound. {@link #clear} keeps the chunks for the next round.
+ *
+ * <p>Direct buffers count against {@code -XX:MaxDirectMemorySize}, which defaults to the maximum heap
+ * size, and are only given back when the list is garbage collected, so a list is meant to be cleared and
+ * reused; its memory is bounded by the largest size it ever held, rounded up to whole chunks.
+ *
+ * <p>Reads are not synchronized with appends; a reader has to be ordered after the writers,
+ * for example by joining the tasks that appended.
+ */
+final class LongChunkList {
+    /**
+     * Number of elements of one buffer.
+     */
+    static final int CHUNK_LONGS = 1 << 16;
+
+    private static final int CHUNK_SHIFT = Integer.numberOfTrailingZeros(CHUNK_LONGS);
+
+    private final AtomicLong size = new AtomicLong();
+    private volatile LongBuffer[] chunks = new LongBuffer[0];
+
+    /**
+     * Method for appending a block of states.
+     * @param values array holding the states.
+     * @param from index of the first state in {@code values}.
+     * @param count number of states.
+     */
+    void append(long[] values, int from, int count) {
+        if (count == 0) {
+            return;
+        }
+        var offset = size.getAndAdd(count);
+        var buffers = ensureCapacity(offset + count);
+        while (count > 0) {
+            var chunk = buffers[(int) (offset >>> CHUNK_SHIFT)];
+            var position = (int) (offset & (CHUNK_LONGS - 1));
+            var length = Math.min(count, CHUNK_LONGS - position);
+            chunk.put(position, values, from, length);
+            offset += length;
+            from += length;
+            count -= length;
+        }
+    }
+
+    /**
+     * {@return the state at the given position}
+     * @param index position in {@code [0, size())}.
+     */
+    long get(long index) {
+        return chunks[(int) (index >>> CHUNK_SHIFT)].get((int) (index & (CHUNK_LONGS - 1)));
+    }
+
+    /**
+     * {@return the number of appended states}
+     */
+    long size() {
+        return size.get();
+    }
+
+    /**
+     * Method for removing every state, the allocated chunks are reused.
+     */
+    void clear() {
+        size.set(0);
+    }
+
+    private LongBuffer[] ensureCapacity(long capacity) {
+        var buffers = chunks;
+        if ((long) buffers.length << CHUNK_SHIFT >= capacity) {
+            return buffers;
+        }
+        synchronized (this) {
+            buffers = chunks;
+            var required = (int) ((capacity + CHUNK_LONGS - 1) >>> CHUNK_SHIFT);
+            if (buffers.length < required) {
+                var grown = Arrays.copyOf(buffers, required);
+                for (var chunk = buffers.length; chunk < required; chunk++) {
+                    grown[chunk] = ByteBuffer.allocateDirect(CHUNK_LONGS * Long.BYTES).order(ByteOrder.nativeOrder()).asLongBuffer();
+                }
+                chunks = grown;
+                buffers = grown;
+            }
+            return buffers;
+        }
+    }
+}
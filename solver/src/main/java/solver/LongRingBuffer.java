@@ -0,0 +1,71 @@
+package solver;
+
+/**
+ * Growable FIFO queue of packed states backed by a {@code long[]} ring.
+ */
+final class LongRingBuffer {
+    private long[] elements;
+    private int head;
+    private int size;
+
+    /**
+     * Creates an empty queue.
+     * @param initialCapacity initial capacity, rounded up to a power of two.
+     */
+    LongRingBuffer(int initialCapacity) {
+        elements = new long[Integer.highestOneBit(Math.max(2, initialCapacity - 1)) << 1];
+    }
+
+    /**
+     * Method for appending a state to the tail.
+     * @param value packed state.
+     */
+    void addLast(long value) {
+        if (size == elements.length) {
+            grow();
+        }
+        elements[(head + size++) & (elements.length - 1)] = value;
+    }
+
+    /**
+     * Method for removing the state at the head.
+     * @return the removed packed state.
+     */
+    long removeFirst() {
+        var value = elements[head];
+        head = (head + 1) & (elements.length - 1);
+        size--;
+        return value;
+    }
+
+    /**
+     * {@return true if the queue holds no states}
+     */
+    boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * {@return the number of queued states}
+     */
+    int size() {
+        return size;
+    }
+
+    /**
+     * Method for removing every state.
+     */
+    void clear() {
+        head = 0;
+        size = 0;
+    }
+
+    private void grow() {
+        var grown = new long[elements.length << 1];
+        for (var index = 0; index < size; index++) {
+            grown[index] = elements[(head + index) & (elements.length - 1)];
+        }
+        elements = grown;
+        head = 0;
+    }
+}
@@ -0,0 +1,222 @@
+package solver;
+
+import model.PackedState;
+import model.Position;
+import puzzle.TwoPhaseMoveState.TwoPhaseMove;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Open-addressing hash table keyed by packed states.
+ * Stores the parent state and an int payload for each key in primitive arrays, so a visited
+ * state costs a few bytes instead of a whole state object. The payload packs the encoded move that
+ * led from the parent to the state, the symmetry that mapped the resulting state onto its key (see
+ * {@link StateReduction}) and the depth of the state, see {@link #value}. The start state is its own
+ * parent and its symmetry is the one that mapped the concrete start state onto its key.
+ */
+final class LongStateTable {
+    private static final long EMPTY = -1L;
+    private static final int MIN_CAPACITY = 16;
+    private static final int MOVE_MASK = 0xFF;
+    private static final int SYMMETRY_SHIFT = 8;
+    private static final int SYMMETRY_MASK = 0xF;
+    private static final int DEPTH_SHIFT = 12;
+
+    private long[] keys;
+    private long[] parents;
+    private int[] data;
+    private int mask;
+    private int size;
+
+    /**
+     * Creates a table sized for the expected number of states.
+     * @param expectedSize expected number of states.
+     */
+    LongStateTable(int expectedSize) {
+        var capacity = Integer.highestOneBit(Math.max(MIN_CAPACITY, expectedSize * 2 - 1)) << 1;
+        allocate(capacity);
+    }
+
+    /**
+     * Method for adding a state if it is not yet present.
+     * @param key packed state, must not be negative.
+     * @param parent packed parent state.
+     * @param value payload of the state.
+     * @return true if the state was added, false if it was already present.
+     */
+    boolean add(long key, long parent, int value) {
+        var slot = probe(key);
+        if (keys[slot] == key) {
+            return false;
+        }
+        keys[slot] = key;
+        parents[slot] = parent;
+        data[slot] = value;
+        if (++size * 2 > keys.length) {
+            rehash();
+        }
+        return true;
+    }
+
+    /**
+     * {@return the slot of the state or -1 if it is not present}
+     * @param key packed state.
+     */
+    int slotOf(long key) {
+        var slot = probe(key);
+        return keys[slot] == key ? slot : -1;
+    }
+
+    /**
+     * {@return true if the state is present}
+     * @param key packed state.
+     */
+    boolean contains(long key) {
+        return slotOf(key) >= 0;
+    }
+
+    /**
+     * {@return the parent stored in the given slot}
+     * @param slot slot returned by {@link #slotOf}.
+     */
+    long parentAt(int slot) {
+        return parents[slot];
+    }
+
+    /**
+     * {@return the payload stored in the given slot}
+     * @param slot slot returned by {@link #slotOf}.
+     */
+    int valueAt(int slot) {
+        return data[slot];
+    }
+
+    /**
+     * Method for overwriting the parent and payload of a present state.
+     * @param slot slot returned by {@link #slotOf}.
+     * @param parent new packed parent state.
+     * @param value new payload.
+     */
+    void setAt(int slot, long parent, int value) {
+        parents[slot] = parent;
+        data[slot] = value;
+    }
+
+    /**
+     * {@return payload packing a depth, a symmetry index and an encoded move}
+     * @param depth depth of the state.
+     * @param symmetry index of the symmetry that mapped the state onto its key.
+     * @param move encoded move from the parent, ignored for the start state.
+     */
+    static int value(int depth, int symmetry, int move) {
+        return depth << DEPTH_SHIFT | symmetry << SYMMETRY_SHIFT | (move & MOVE_MASK);
+    }
+
+    /**
+     * {@return the depth stored in a payload}
+     * @param value payload.
+     */
+    static int depthOf(int value) {
+        return value >>> DEPTH_SHIFT;
+    }
+
+    /**
+     * {@return the symmetry index stored in a payload}
+     * @param value payload.
+     */
+    static int symmetryOf(int value) {
+        return (value >>> SYMMETRY_SHIFT) & SYMMETRY_MASK;
+    }
+
+    /**
+     * {@return the encoded move stored in a payload}
+     * @param value payload.
+     */
+    static int moveOf(int value) {
+        return value & MOVE_MASK;
+    }
+
+    /**
+     * Method for collecting the moves leading from the concrete start state to the given state.
+     * @param key packed state, must be present.
+     * @return moves in the order they have to be made.
+     */
+    List<TwoPhaseMove<Position>> pathTo(long key) {
+        var moves = new ArrayList<TwoPhaseMove<Position>>();
+        pathTo(key, moves);
+        return moves;
+    }
+
+    /**
+     * Method for collecting the moves leading from the concrete start state to the given state.
+     * Keys are related to the concrete states only up to a symmetry, so every move is mapped through
+     * the symmetries collected on the way.
+     * @param key packed state, must be present.
+     * @param moves list the moves are appended to, in the order they have to be made.
+     * @return index of the symmetry that maps {@code key} onto the concrete state the moves lead to,
+     * up to swapping same-colour pieces.
+     */
+    int pathTo(long key, List<TwoPhaseMove<Position>> moves) {
+        var steps = new ArrayList<Integer>();
+        var slot = slotOf(key);
+        while (parents[slot] != keys[slot]) {
+            steps.add(data[slot]);
+            slot = slotOf(parents[slot]);
+        }
+        Collections.reverse(steps);
+        var toConcrete = PackedState.inverseSymmetry(symmetryOf(data[slot]));
+        for (var step : steps) {
+            moves.add(PackedState.toTwoPhaseMove(PackedState.transformMove(moveOf(step), toConcrete)));
+            toConcrete = PackedState.composeSymmetries(toConcrete, PackedState.inverseSymmetry(symmetryOf(step)));
+        }
+        return toConcrete;
+    }
+
+    /**
+     * {@return the number of stored states}
+     */
+    int size() {
+        return size;
+    }
+
+    private int probe(long key) {
+        var slot = (int) mix(key) & mask;
+        while (keys[slot] != EMPTY && keys[slot] != key) {
+            slot = (slot + 1) & mask;
+        }
+        return slot;
+    }
+
+    private void rehash() {
+        var oldKeys = keys;
+        var oldParents = parents;
+        var oldData = data;
+        allocate(oldKeys.length << 1);
+        for (var index = 0; index < oldKeys.length; index++) {
+            if (oldKeys[index] != EMPTY) {
+                var slot = probe(oldKeys[index]);
+                keys[slot] = oldKeys[index];
+                parents[slot] = oldParents[index];
+                data[slot] = oldData[index];
+            }
+        }
+    }
+
+    private void allocate(int capacity) {
+        keys = new long[capacity];
+        Arrays.fill(keys, EMPTY);
+        parents = new long[capacity];
+        data = new int[capacity];
+        mask = capacity - 1;
+    }
+
+    private static long mix(long key) {
+        key ^= key >>> 33;
+        key *= 0xff51afd7ed558ccdL;
+        key ^= key >>> 33;
+        return key;
+    }
+}
@@ -0,0 +1,53 @@
+package solver;
+
+import model.PuzzleMetrics;
+import model.PuzzleState;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+/**
+ * Command line solver that prints a shortest solution move by move.
+ * The solution is read off a {@link DistanceDatabase} file, so a run does no search and
+ * its time is mostly the start of the JVM; the file and its directory are created on the first run.
+ *
+ * <p>Usage: {@code Main [--table FILE] [STATE]}, the state written as for {@link BatchSolver#parse}
+ * and the start state when missing; the table defaults to {@link #DEFAULT_TABLE}.
+ */
+public class Main {
+    /**
+     * Table file used when none is given, in the cache directory of the user so that other users
+     * cannot plant or replace it.
+     */
+    public static final Path DEFAULT_TABLE = Path.of(System.getProperty("user.home"), ".cache", "puzzle-solver", "distances.bin");
+
+    public static void main(String[] args) throws IOException {
+        PuzzleMetrics.registerIfEnabled();
+        var tablePath = DEFAULT_TABLE;
+        var state = new StringBuilder();
+        for (var index = 0; index < args.length; index++) {
+            if (!args[index].equals("--table")) {
+                state.append(args[index]).append(' ');
+            } else if (index + 1 < args.length) {
+                tablePath = Path.of(args[++index]);
+            } else {
+                throw new IllegalArgumentException("Missing value of option: --table");
+            }
+        }
+        var current = state.isEmpty() ? new PuzzleState() : BatchSolver.parse(state.toString());
+        Files.createDirectories(tablePath.toAbsolutePath().getParent());
+        var table = DistanceDatabase.loadOrBuild(tablePath);
+        if (table.distance(current) == DistanceTable.UNREACHABLE) {
+            System.out.println("No solution found");
+            return;
+        }
+        System.out.println(current);
+        for (var move = table.hint(current); move.isPresent(); move = table.hint(current)) {
+            current.makeMove(move.get());
+            System.out.println(BatchSolver.format(List.of(move.get())));
+            System.out.println(current);
+        }
+    }
+}
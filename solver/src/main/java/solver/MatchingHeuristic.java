@@ -0,0 +1,222 @@
+package solver;
+
+import model.BoardTopology;
+
+import java.util.Arrays;
+
+/**
+ * Admissible estimate of the number of moves left.
+ * Every piece has to reach a distinct target cell of its colour, and a move advances a single piece by
+ * one cell, so the cheapest assignment of the pieces of a colour to its target cells, measured in board
+ * distance, never overestimates; a colour with fewer pieces than target cells takes the cheapest of them.
+ * The cost only depends on the set of cells a colour occupies, so on boards of up to
+ * {@link #TABLE_CELL_LIMIT} cells it is precomputed for every cell mask; on larger boards it is computed
+ * for every estimate by the Hungarian method in {@code O(k^2 m)} for {@code k} pieces and {@code m} target
+ * cells, over scratch arrays of the instance, so an instance of a large board must not be shared between
+ * threads.
+ */
+final class MatchingHeuristic {
+    /**
+     * Largest number of cells whose costs are precomputed.
+     */
+    static final int TABLE_CELL_LIMIT = 16;
+
+    private static final int DIRECTION_COUNT = 4;
+    private static final int UNREACHABLE = 1 << 20;
+
+    private final int bits;
+    private final int pieceCount;
+    private final int greenCount;
+    private final int[][] distances;
+    private final int[] greenTargets;
+    private final int[] redTargets;
+    private final int[] greenCost;
+    private final int[] redCost;
+    private final int[] sources;
+    private final int[] rowPotentials;
+    private final int[] columnPotentials;
+    private final int[] assigned;
+    private final int[] previous;
+    private final int[] slack;
+    private final boolean[] used;
+
+    /**
+     * Creates the heuristic of the ten-cell board.
+     */
+    MatchingHeuristic() {
+        this(BoardTopology.standard());
+    }
+
+    /**
+     * Creates the heuristic of a board.
+     * @param topology board to estimate the states of.
+     */
+    MatchingHeuristic(BoardTopology topology) {
+        this.bits = topology.bitsPerCell();
+        this.pieceCount = topology.pieceCount();
+        this.greenCount = topology.greenCount();
+        this.distances = cellDistances(topology);
+        this.greenTargets = cellsOf(topology.targetCells(0));
+        this.redTargets = cellsOf(topology.targetCells(pieceCount - 1));
+        var columns = Math.max(greenTargets.length, redTargets.length) + 1;
+        sources = new int[pieceCount + 1];
+        rowPotentials = new int[pieceCount + 1];
+        columnPotentials = new int[columns];
+        assigned = new int[columns];
+        previous = new int[columns];
+        slack = new int[columns];
+        used = new boolean[columns];
+        if (topology.cellCount() <= TABLE_CELL_LIMIT) {
+            var maskCount = 1 << topology.cellCount();
+            greenCost = new int[maskCount];
+            redCost = new int[maskCount];
+            for (var mask = 0; mask < maskCount; mask++) {
+                var count = Integer.bitCount(mask);
+                if (count == greenCount) {
+                    greenCost[mask] = assignmentCost(mask, greenTargets);
+                }
+                if (count == pieceCount - greenCount) {
+                    redCost[mask] = assignmentCost(mask, redTargets);
+                }
+            }
+        } else {
+            greenCost = null;
+            redCost = null;
+        }
+    }
+
+    /**
+     * {@return lower bound of the moves needed to solve the packed state}
+     * @param packed packed state, see {@link model.PuzzleState#toPacked()}.
+     */
+    int estimate(long packed) {
+        var green = 0L;
+        var red = 0L;
+        var cellMask = (1L << bits) - 1;
+        for (var piece = 0; piece < pieceCount; piece++) {
+            var cell = (int) (packed >>> (piece * bits) & cellMask);
+            if (piece < greenCount) {
+                green |= 1L << cell;
+            } else {
+                red |= 1L << cell;
+            }
+        }
+        if (greenCost != null) {
+            return greenCost[(int) green] + redCost[(int) red];
+        }
+        return assignmentCost(green, greenTargets) + assignmentCost(red, redTargets);
+    }
+
+    /**
+     * {@return rough number of elementary steps of one {@link #estimate}, for pacing clock reads}
+     */
+    int estimateWork() {
+        if (greenCost != null) {
+            return 1;
+        }
+        var redCount = pieceCount - greenCount;
+        return greenCount * greenCount * greenTargets.length + redCount * redCount * redTargets.length + 1;
+    }
+
+    private static int[][] cellDistances(BoardTopology topology) {
+        var cellCount = topology.cellCount();
+        var distances = new int[cellCount][cellCount];
+        var queue = new int[cellCount];
+        for (var source = 0; source < cellCount; source++) {
+            Arrays.fill(distances[source], UNREACHABLE);
+            distances[source][source] = 0;
+            var head = 0;
+            var tail = 0;
+            queue[tail++] = source;
+            while (head < tail) {
+                var cell = queue[head++];
+                for (var direction = 0; direction < DIRECTION_COUNT; direction++) {
+                    var next = topology.neighbour(cell, direction);
+                    if (next != BoardTopology.NONE && distances[source][next] == UNREACHABLE) {
+                        distances[source][next] = distances[source][cell] + 1;
+                        queue[tail++] = next;
+                    }
+                }
+            }
+        }
+        return distances;
+    }
+
+    /**
+     * Minimum cost matching of the cells of {@code mask} onto distinct target cells by the Hungarian
+     * method with row and column potentials. A colour with fewer pieces than target cells is matched
+     * to its cheapest cells of the row. A colour with more pieces than target cells has no solved state
+     * and gets cost zero, and so does a mask with a cell that cannot reach the target.
+     */
+    private int assignmentCost(long mask, int[] targets) {
+        var rows = Long.bitCount(mask);
+        var columns = targets.length;
+        if (rows > columns || rows == 0) {
+            return 0;
+        }
+        for (var row = 1; row <= rows; row++) {
+            sources[row] = Long.numberOfTrailingZeros(mask);
+            mask &= mask - 1;
+        }
+        Arrays.fill(rowPotentials, 0, rows + 1, 0);
+        Arrays.fill(columnPotentials, 0, columns + 1, 0);
+        Arrays.fill(assigned, 0, columns + 1, 0);
+        for (var row = 1; row <= rows; row++) {
+            assigned[0] = row;
+            var column = 0;
+            Arrays.fill(slack, 0, columns + 1, Integer.MAX_VALUE);
+            Arrays.fill(used, 0, columns + 1, false);
+            do {
+                used[column] = true;
+                var current = assigned[column];
+                var delta = Integer.MAX_VALUE;
+                var next = 0;
+                for (var candidate = 1; candidate <= columns; candidate++) {
+                    if (used[candidate]) {
+                        continue;
+                    }
+                    var reduced = distances[sources[current]][targets[candidate - 1]]
+                            - rowPotentials[current] - columnPotentials[candidate];
+                    if (reduced < slack[candidate]) {
+                        slack[candidate] = reduced;
+                        previous[candidate] = column;
+                    }
+                    if (slack[candidate] < delta) {
+                        delta = slack[candidate];
+                        next = candidate;
+                    }
+                }
+                for (var candidate = 0; candidate <= columns; candidate++) {
+                    if (used[candidate]) {
+                        rowPotentials[assigned[candidate]] += delta;
+                        columnPotentials[candidate] -= delta;
+                    } else {
+                        slack[candidate] -= delta;
+                    }
+                }
+                column = next;
+            } while (assigned[column] != 0);
+            do {
+                var before = previous[column];
+                assigned[column] = assigned[before];
+                column = before;
+            } while (column != 0);
+        }
+        var cost = 0;
+        for (var column = 1; column <= columns; column++) {
+            if (assigned[column] != 0) {
+                cost += distances[sources[assigned[column]]][targets[column - 1]];
+            }
+        }
+        return cost >= UNREACHABLE ? 0 : cost;
+    }
+
+    private static int[] cellsOf(long mask) {
+        var cells = new int[Long.bitCount(mask)];
+        for (var index = 0; index < cells.length; index++) {
+            cells[index] = Long.numberOfTrailingZeros(mask);
+            mask &= mask - 1;
+        }
+        return cells;
+    }
+}
@@ -0,0 +1,191 @@
+package solver;
+
+import model.PackedState;
+import model.Position;
+import model.PuzzleState;
+import model.RepresentativeIndexer;
+import puzzle.TwoPhaseMoveState.TwoPhaseMove;
+
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Every shortest solution of a state, counted or enumerated on demand.
+ * The {@link DistanceTable} orders the states into layers by their distance from the solved states;
+ * a move lies on a shortest solution exactly if it leads one layer down, so the shortest solutions are
+ * the paths of this layer DAG from the start state down to layer 0.
+ *
+ * <p>The number of paths below a state only depends on its symmetry class, so {@link #count} runs a
+ * memoized dynamic program over the classes instead of enumerating paths. {@link #stream} walks the
+ * DAG depth-first and builds one list per solution only when the caller asks for it.
+ */
+public final class OptimalSolutions {
+    private static final int DIRECTION_COUNT = 4;
+
+    private final DistanceTable table;
+    private final RepresentativeIndexer indexer = new RepresentativeIndexer();
+    private final BigInteger[] counts = new BigInteger[indexer.size()];
+
+    /**
+     * Creates the solutions of the states of a table.
+     * @param table distances of every state.
+     */
+    public OptimalSolutions(DistanceTable table) {
+        this.table = table;
+    }
+
+    /**
+     * Method for counting the shortest solutions without enumerating them.
+     * @param state start state, it is not modified.
+     * @return number of distinct shortest solutions, 0 if the state cannot be solved.
+     */
+    public synchronized BigInteger count(PuzzleState state) {
+        var packed = PackedState.pack(state);
+        if (table.distance(packed) == DistanceTable.UNREACHABLE) {
+            return BigInteger.ZERO;
+        }
+        return count(packed);
+    }
+
+    /**
+     * Method for iterating the shortest solutions lazily.
+     * Solutions come in a fixed order; only the current path is kept between two solutions.
+     * @param state start state, it is not modified.
+     * @return iterator over every shortest solution, empty if the state cannot be solved.
+     */
+    public Iterator<List<TwoPhaseMove<Position>>> iterator(PuzzleState state) {
+        return new SolutionIterator(PackedState.pack(state));
+    }
+
+    /**
+     * Method for streaming the shortest solutions lazily, see {@link #iterator}.
+     * @param state start state, it is not modified.
+     * @return sequential stream of every shortest solution.
+     */
+    public Stream<List<TwoPhaseMove<Position>>> stream(PuzzleState state) {
+        var spliterator = Spliterators.spliteratorUnknownSize(iterator(state), Spliterator.ORDERED | Spliterator.NONNULL);
+        return StreamSupport.stream(spliterator, false);
+    }
+
+    private BigInteger count(long packed) {
+        var distance = table.distance(packed);
+        if (distance == 0) {
+            return BigInteger.ONE;
+        }
+        var index = indexer.indexOf(packed);
+        if (counts[index] == null) {
+            var moves = new int[PackedState.PIECES_COUNT * DIRECTION_COUNT];
+            var total = BigInteger.ZERO;
+            var moveCount = optimalMoves(packed, distance, moves);
+            for (var move = 0; move < moveCount; move++) {
+                total = total.add(count(PackedState.apply(packed, moves[move])));
+            }
+            counts[index] = total;
+        }
+        return counts[index];
+    }
+
+    /**
+     * Method for writing the moves that lead one layer down.
+     * @return number of moves written.
+     */
+    private int optimalMoves(long packed, int distance, int[] moves) {
+        var occupied = PackedState.occupancy(packed);
+        var count = 0;
+        for (var direction = 0; direction < DIRECTION_COUNT; direction++) {
+            for (var piece = 0; piece < PackedState.PIECES_COUNT; piece++) {
+                var from = PackedState.cell(packed, piece);
+                var to = PackedState.neighbour(from, direction);
+                if (to != PackedState.NONE && (occupied & (1 << to)) == 0
+                        && table.distance(PackedState.withCell(packed, piece, to)) == distance - 1) {
+                    moves[count++] = PackedState.cellMove(from, direction);
+                }
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Depth-first walk of the layer DAG keeping one array of moves per depth.
+     */
+    private final class SolutionIterator implements Iterator<List<TwoPhaseMove<Position>>> {
+        private final int length;
+        private final long[] states;
+        private final int[][] options;
+        private final int[] optionCounts;
+        private final int[] cursors;
+        private final int[] path;
+        private int depth;
+        private boolean ready;
+        private boolean finished;
+
+        private SolutionIterator(long start) {
+            var distance = table.distance(start);
+            length = Math.max(distance, 0);
+            states = new long[length + 1];
+            options = new int[length][PackedState.PIECES_COUNT * DIRECTION_COUNT];
+            optionCounts = new int[length];
+            cursors = new int[length];
+            path = new int[length];
+            states[0] = start;
+            finished = distance == DistanceTable.UNREACHABLE;
+            ready = distance == 0;
+            if (distance > 0) {
+                load(0);
+            }
+        }
+
+        @Override
+        public boolean hasNext() {
+            if (!ready && !finished) {
+                ready = advance();
+                finished = !ready;
+            }
+            return ready;
+        }
+
+        @Override
+        public List<TwoPhaseMove<Position>> next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            ready = false;
+            finished |= length == 0;
+            var solution = new ArrayList<TwoPhaseMove<Position>>(length);
+            for (var move : path) {
+                solution.add(PackedState.toTwoPhaseMove(move));
+            }
+            return solution;
+        }
+
+        private boolean advance() {
+            while (depth >= 0 && length > 0) {
+                if (cursors[depth] == optionCounts[depth]) {
+                    depth--;
+                    continue;
+                }
+                var move = options[depth][cursors[depth]++];
+                path[depth] = move;
+                states[depth + 1] = PackedState.apply(states[depth], move);
+                if (depth + 1 == length) {
+                    return true;
+                }
+                depth++;
+                load(depth);
+            }
+            return false;
+        }
+
+        private void load(int level) {
+            optionCounts[level] = optimalMoves(states[level], length - level, options[level]);
+            cursors[level] = 0;
+        }
+    }
+}
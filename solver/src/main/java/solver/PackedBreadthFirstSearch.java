@@ -0,0 +1,106 @@
+package solver;
+
+import model.PackedState;
+import model.Position;
+import model.PuzzleMetrics;
+import model.PuzzleState;
+import puzzle.TwoPhaseMoveState.TwoPhaseMove;
+
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Breadth-first search over packed states.
+ * The visited set is an open-addressing table of primitive keys and the frontier is a ring buffer of
+ * {@code long}s, so no state objects are created while searching.
+ */
+public class PackedBreadthFirstSearch {
+    private static final int DIRECTION_COUNT = 4;
+    private static final int EXPECTED_STATES = 1 << 12;
+
+    private final StateReduction reduction;
+    private int expandedStates;
+
+    /**
+     * Creates a search that tells every piece apart.
+     */
+    public PackedBreadthFirstSearch() {
+        this(StateReduction.NONE);
+    }
+
+    /**
+     * Creates a search.
+     * @param reduction which equivalent states to merge; solutions are still returned as moves of
+     *                  the concrete start state.
+     */
+    public PackedBreadthFirstSearch(StateReduction reduction) {
+        this.reduction = reduction;
+    }
+
+    /**
+     * Method for finding a shortest solution.
+     * @param state start state, it is not modified.
+     * @return moves leading to a solved state or empty Optional if the puzzle has no solution.
+     */
+    public Optional<List<TwoPhaseMove<Position>>> solve(PuzzleState state) {
+        PuzzleMetrics.get().solved();
+        var visited = new LongStateTable(EXPECTED_STATES);
+        var frontier = new LongRingBuffer(EXPECTED_STATES);
+        var concrete = PackedState.pack(state);
+        var startSymmetry = reduction.symmetryOf(concrete);
+        var start = reduction.key(concrete, startSymmetry);
+        visited.add(start, start, LongStateTable.value(0, startSymmetry, 0));
+        expandedStates = 0;
+        if (PackedState.isSolved(start)) {
+            return Optional.of(List.of());
+        }
+        frontier.addLast(start);
+        while (!frontier.isEmpty()) {
+            var current = frontier.removeFirst();
+            var occupied = PackedState.occupancy(current);
+            expandedStates++;
+            for (var direction = 0; direction < DIRECTION_COUNT; direction++) {
+                for (var piece = 0; piece < PackedState.PIECES_COUNT; piece++) {
+                    var from = PackedState.cell(current, piece);
+                    var to = PackedState.neighbour(from, direction);
+                    if (to == PackedState.NONE || (occupied & (1 << to)) != 0) {
+                        continue;
+                    }
+                    var moved = PackedState.withCell(current, piece, to);
+                    var symmetry = reduction.symmetryOf(moved);
+                    var child = reduction.key(moved, symmetry);
+                    if (visited.add(child, current, LongStateTable.value(0, symmetry, PackedState.cellMove(from, direction)))) {
+                        if (PackedState.isSolved(child)) {
+                            return Optional.of(visited.pathTo(child));
+                        }
+                        frontier.addLast(child);
+                    }
+                }
+            }
+        }
+        return Optional.empty();
+    }
+
+    /**
+     * Method for solving the puzzle and printing every state of the solution.
+     * @param state start state, it is not modified.
+     */
+    public void solveAndPrintSolution(PuzzleState state) {
+        solve(state).ifPresentOrElse(moves -> {
+            var current = state.clone();
+            System.out.println(current);
+            for (var move : moves) {
+                current.makeMove(move);
+                System.out.println(move);
+                System.out.println(current);
+            }
+        }, () -> System.out.println("No solution found"));
+    }
+
+    /**
+     * {@return the number of states expanded by the last search}
+     */
+    public int getExpandedStates() {
+        return expandedStates;
+    }
+}
@@ -0,0 +1,88 @@
+package solver;
+
+import model.PackedState;
+import model.Position;
+import model.PuzzleMetrics;
+import model.PuzzleState;
+import model.StateIndexer;
+import puzzle.TwoPhaseMoveState.TwoPhaseMove;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.LongUnaryOperator;
+
+/**
+ * Breadth-first search that expands every level on all cores, see {@link ParallelLevelExpansion}.
+ * States are numbered by a {@link StateIndexer}, so the visited set is a bitmap and the move that
+ * reached each state is kept in one byte per index; the solution is read back from these bytes.
+ * The off-heap buffers of the expansion are reused by every search of an instance, so an instance must
+ * not solve from several threads at once.
+ */
+public class ParallelBreadthFirstSearch {
+    private static final int NOT_FOUND = -1;
+
+    private final StateIndexer indexer = new StateIndexer();
+    private final ParallelLevelExpansion expansion;
+    private long expandedStates;
+
+    /**
+     * Creates a search running on the common pool.
+     */
+    public ParallelBreadthFirstSearch() {
+        this(ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Creates a search.
+     * @param pool pool expanding the levels.
+     */
+    public ParallelBreadthFirstSearch(ForkJoinPool pool) {
+        this.expansion = new ParallelLevelExpansion(pool, indexer.size(), LongUnaryOperator.identity(), indexer::indexOf);
+    }
+
+    /**
+     * Method for finding a shortest solution.
+     * The level that reaches a solved state is finished before the search stops, so another shortest
+     * solution may be returned on every run.
+     * @param state start state, it is not modified.
+     * @return moves leading to a solved state or empty Optional if the puzzle has no solution.
+     */
+    public Optional<List<TwoPhaseMove<Position>>> solve(PuzzleState state) {
+        PuzzleMetrics.get().solved();
+        var start = PackedState.pack(state);
+        var moves = new byte[indexer.size()];
+        var goal = new AtomicInteger(NOT_FOUND);
+        expansion.run(new long[]{start}, (index, packed, move, depth) -> {
+            moves[(int) index] = (byte) move;
+            if (!PackedState.isSolved(packed)) {
+                return false;
+            }
+            goal.compareAndSet(NOT_FOUND, (int) index);
+            return true;
+        });
+        expandedStates = expansion.expandedStates();
+        if (goal.get() == NOT_FOUND) {
+            return Optional.empty();
+        }
+        var path = new ArrayList<TwoPhaseMove<Position>>();
+        var current = indexer.packedAt(goal.get());
+        while (current != start) {
+            var move = moves[indexer.indexOf(current)];
+            current = PackedState.apply(current, PackedState.reverse(move));
+            path.add(PackedState.toTwoPhaseMove(move));
+        }
+        Collections.reverse(path);
+        return Optional.of(path);
+    }
+
+    /**
+     * {@return the number of states expanded by the last search}
+     */
+    public long getExpandedStates() {
+        return expandedStates;
+    }
+}
@@ -0,0 +1,182 @@
+package solver;
+
+import model.PackedState;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.function.LongUnaryOperator;
+
+/**
+ * Level-synchronous breadth-first expansion of packed states on a {@link ForkJoinPool}.
+ * Each level is split into ranges of the frontier that are expanded in parallel; a child is claimed
+ * by the thread that sets its bit in a shared {@link AtomicBitmap}, so every state is reported once.
+ * Every task collects its children in a buffer owned by its worker thread and copies them into the
+ * next frontier in one block, and the next level starts only when every task of the level has finished.
+ * Indexes are {@code long}, so the state space may exceed {@link Integer#MAX_VALUE} states.
+ * The bitmap is off-heap, and the frontiers are {@link LongChunkList}s that grow with the size of the
+ * levels, so the memory of a run is one bit per state plus the two largest consecutive levels. They are
+ * allocated by the first run and cleared and reused by the later ones, since direct memory is only given
+ * back by the garbage collector; runs of one expansion must therefore not overlap.
+ */
+final class ParallelLevelExpansion {
+    private static final int DIRECTION_COUNT = 4;
+    private static final int SPLIT_THRESHOLD = 1 << 10;
+    private static final int MAX_CHILDREN = PackedState.PIECES_COUNT * DIRECTION_COUNT;
+
+    /**
+     * Receiver of the newly reached states.
+     */
+    @FunctionalInterface
+    interface Visitor {
+        /**
+         * Method called once for every reached state, from any worker thread.
+         * @param index index of the state.
+         * @param packed state as returned by the normalizer.
+         * @param move encoded move from the parent, see {@link PackedState#cellMove}.
+         * @param depth number of moves from the nearest seed.
+         * @return true to stop once the current level is finished.
+         */
+        boolean visit(long index, long packed, int move, int depth);
+    }
+
+    private final ForkJoinPool pool;
+    private final LongUnaryOperator normalizer;
+    private final LongUnaryOperator indexer;
+    private final long size;
+    private final ThreadLocal<long[]> buffers = ThreadLocal.withInitial(() -> new long[SPLIT_THRESHOLD * MAX_CHILDREN]);
+    private AtomicBitmap visited;
+    private LongChunkList frontier;
+    private LongChunkList next;
+    private long expandedStates;
+
+    /**
+     * Creates an expansion over a dense index of states.
+     * @param pool pool running the tasks.
+     * @param size number of indexes.
+     * @param normalizer maps every state onto the state stored for its index.
+     * @param indexer index of a normalized state in {@code [0, size)}.
+     */
+    ParallelLevelExpansion(ForkJoinPool pool, long size, LongUnaryOperator normalizer, LongUnaryOperator indexer) {
+        this.pool = pool;
+        this.size = size;
+        this.normalizer = normalizer;
+        this.indexer = indexer;
+    }
+
+    /**
+     * Method for expanding every level reachable from the seeds.
+     * Seeds are normalized and reported with depth 0 and move {@link PackedState#NONE}.
+     * @param seeds start states.
+     * @param visitor receiver of the reached states.
+     * @return number of the last level that reached new states.
+     */
+    int run(long[] seeds, Visitor visitor) {
+        if (visited == null) {
+            visited = new AtomicBitmap(size);
+            frontier = new LongChunkList();
+            next = new LongChunkList();
+        } else {
+            visited.clear();
+            frontier.clear();
+            next.clear();
+        }
+        var stop = false;
+        expandedStates = 0;
+        for (var seed : seeds) {
+            var packed = normalizer.applyAsLong(seed);
+            var index = indexer.applyAsLong(packed);
+            if (visited.set(index)) {
+                frontier.append(new long[]{packed}, 0, 1);
+                stop |= visitor.visit(index, packed, PackedState.NONE, 0);
+            }
+        }
+        var depth = 0;
+        while (frontier.size() > 0 && !stop) {
+            var level = new Level(frontier, next, visited, visitor, depth + 1);
+            pool.invoke(new ExpandTask(level, 0, frontier.size()));
+            expandedStates += frontier.size();
+            if (next.size() == 0) {
+                break;
+            }
+            depth++;
+            stop = level.stop;
+            frontier.clear();
+            var swap = frontier;
+            frontier = next;
+            next = swap;
+        }
+        return depth;
+    }
+
+    /**
+     * {@return the number of states expanded by the last run}
+     */
+    long expandedStates() {
+        return expandedStates;
+    }
+
+    private final class Level {
+        private final LongChunkList frontier;
+        private final LongChunkList next;
+        private final AtomicBitmap visited;
+        private final Visitor visitor;
+        private final int depth;
+        private volatile boolean stop;
+
+        private Level(LongChunkList frontier, LongChunkList next, AtomicBitmap visited, Visitor visitor, int depth) {
+            this.frontier = frontier;
+            this.next = next;
+            this.visited = visited;
+            this.visitor = visitor;
+            this.depth = depth;
+        }
+    }
+
+    @SuppressWarnings("serial")
+    private final class ExpandTask extends RecursiveAction {
+        private final Level level;
+        private final long from;
+        private final long to;
+
+        private ExpandTask(Level level, long from, long to) {
+            this.level = level;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from > SPLIT_THRESHOLD) {
+                var middle = (from + to) >>> 1;
+                invokeAll(new ExpandTask(level, from, middle), new ExpandTask(level, middle, to));
+                return;
+            }
+            var children = buffers.get();
+            var count = 0;
+            var stop = false;
+            for (var position = from; position < to; position++) {
+                var current = level.frontier.get(position);
+                var occupied = PackedState.occupancy(current);
+                for (var direction = 0; direction < DIRECTION_COUNT; direction++) {
+                    for (var piece = 0; piece < PackedState.PIECES_COUNT; piece++) {
+                        var cell = PackedState.cell(current, piece);
+                        var target = PackedState.neighbour(cell, direction);
+                        if (target == PackedState.NONE || (occupied & (1 << target)) != 0) {
+                            continue;
+                        }
+                        var child = normalizer.applyAsLong(PackedState.withCell(current, piece, target));
+                        var index = indexer.applyAsLong(child);
+                        if (level.visited.set(index)) {
+                            children[count++] = child;
+                            stop |= level.visitor.visit(index, child, PackedState.cellMove(cell, direction), level.depth);
+                        }
+                    }
+                }
+            }
+            if (stop) {
+                level.stop = true;
+            }
+            level.next.append(children, 0, count);
+        }
+    }
+}
@@ -0,0 +1,15 @@
+package solver;
+
+import model.Position;
+import puzzle.TwoPhaseMoveState.TwoPhaseMove;
+
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Outcome of a search.
+ * @param solution moves of the solution found, empty if the puzzle has no solution.
+ * @param expandedNodes number of states whose children were generated.
+ */
+public record SearchResult(Optional<List<TwoPhaseMove<Position>>> solution, long expandedNodes) {
+}
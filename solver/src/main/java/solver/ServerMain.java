@@ -0,0 +1,51 @@
+package solver;
+
+import model.PuzzleMetrics;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Command line entry point of {@link SolveServer}.
+ * Builds or loads the distance table once and serves queries until the process is stopped.
+ *
+ * <p>Usage: {@code ServerMain [--table FILE] [--port PORT]}; the default port is {@value #DEFAULT_PORT}
+ * and the distance table file is created when missing.
+ */
+public class ServerMain {
+    /**
+     * Port used when none is given.
+     */
+    public static final int DEFAULT_PORT = 8642;
+
+    private static final String NODELAY = "sun.net.httpserver.nodelay";
+
+    public static void main(String[] args) throws IOException {
+        // Read once by the JDK server when the first one is created, see SolveServer.
+        if (System.getProperty(NODELAY) == null) {
+            System.setProperty(NODELAY, "true");
+        }
+        PuzzleMetrics.registerIfEnabled();
+        Path tablePath = null;
+        var port = DEFAULT_PORT;
+        for (var index = 0; index < args.length; index++) {
+            var option = args[index];
+            if (!option.equals("--table") && !option.equals("--port")) {
+                throw new IllegalArgumentException(String.format("Unknown option: %s", option));
+            }
+            if (index + 1 == args.length) {
+                throw new IllegalArgumentException(String.format("Missing value of option: %s", option));
+            }
+            var value = args[++index];
+            if (option.equals("--table")) {
+                tablePath = Path.of(value);
+            } else {
+                port = Integer.parseInt(value);
+            }
+        }
+        var table = tablePath == null ? DistanceTable.build(ForkJoinPool.commonPool()) : DistanceDatabase.loadOrBuild(tablePath);
+        var server = new SolveServer(table, port);
+        Runtime.getRuntime().addShutdownHook(new Thread(server::close));
+    }
+}
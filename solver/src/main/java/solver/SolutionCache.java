@@ -0,0 +1,164 @@
+package solver;
+
+import model.Direction;
+import model.PackedState;
+import model.Position;
+import model.PuzzleState;
+import puzzle.TwoPhaseMoveState.TwoPhaseMove;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Function;
+
+/**
+ * Size-bounded cache of optimal solutions with least-recently-used eviction.
+ * Entries are keyed by the {@link PackedState#representative representative} of a state, so identical,
+ * colour-swapped and symmetric states share one entry. Every suffix of an optimal solution is an
+ * optimal solution of the state it starts from, so storing a solution adds an entry for the states
+ * along it; the entries share one array of moves and only remember where their suffix starts.
+ * All methods are thread-safe.
+ */
+public final class SolutionCache {
+    private final int capacity;
+    private final Map<Long, Entry> entries;
+    private long hits;
+    private long misses;
+    private long evictions;
+
+    /**
+     * Suffix of a stored solution.
+     * @param moves cell-encoded moves of the whole solution, see {@link PackedState#cellMove}.
+     * @param offset index of the first move of the suffix.
+     * @param symmetry symmetry that maps the state at {@code offset} onto the key.
+     */
+    private record Entry(int[] moves, int offset, int symmetry) {
+    }
+
+    /**
+     * Creates an empty cache.
+     * @param capacity maximum number of cached states.
+     */
+    public SolutionCache(int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException(String.format("Invalid capacity: %d", capacity));
+        }
+        this.capacity = capacity;
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, Entry> eldest) {
+                if (size() > SolutionCache.this.capacity) {
+                    evictions++;
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    /**
+     * Method for looking up the solution of a state.
+     * @param state state to solve, it is not modified.
+     * @return cached shortest solution of the state or empty Optional on a miss.
+     */
+    public synchronized Optional<List<TwoPhaseMove<Position>>> get(PuzzleState state) {
+        var packed = PackedState.pack(state);
+        var entry = entries.get(PackedState.representative(packed));
+        if (entry == null) {
+            misses++;
+            return Optional.empty();
+        }
+        hits++;
+        var toState = PackedState.composeSymmetries(
+                PackedState.inverseSymmetry(PackedState.representativeSymmetry(packed)),
+                entry.symmetry()
+        );
+        var moves = new ArrayList<TwoPhaseMove<Position>>(entry.moves().length - entry.offset());
+        for (var index = entry.offset(); index < entry.moves().length; index++) {
+            moves.add(PackedState.toTwoPhaseMove(PackedState.transformMove(entry.moves()[index], toState)));
+        }
+        return Optional.of(moves);
+    }
+
+    /**
+     * Method for storing a shortest solution together with the solution of the states along it.
+     * At most a quarter of the capacity is spent on one solution, on {@code start} and the states
+     * right after it, and they are inserted from the last one back to {@code start}, so {@code start}
+     * is the most recently used and a long solution does not flush the rest of the cache.
+     * @param start state the solution starts from, it is not modified.
+     * @param solution shortest solution of {@code start}.
+     */
+    public synchronized void put(PuzzleState start, List<TwoPhaseMove<Position>> solution) {
+        var moves = new int[solution.size()];
+        for (var index = 0; index < moves.length; index++) {
+            var move = solution.get(index);
+            moves[index] = PackedState.cellMove(
+                    PackedState.cellOf(move.from()),
+                    Direction.of(move.to().row(), move.to().column()).ordinal()
+            );
+        }
+        var states = new long[Math.min(moves.length + 1, Math.max(1, capacity / 4))];
+        states[0] = PackedState.pack(start);
+        for (var offset = 1; offset < states.length; offset++) {
+            states[offset] = PackedState.apply(states[offset - 1], moves[offset - 1]);
+        }
+        for (var offset = states.length - 1; offset >= 0; offset--) {
+            var entry = new Entry(moves, offset, PackedState.representativeSymmetry(states[offset]));
+            entries.put(PackedState.representative(states[offset]), entry);
+        }
+    }
+
+    /**
+     * Method for getting the cached solution of a state or solving and caching it on a miss.
+     * @param state state to solve, it is not modified.
+     * @param solver search returning a shortest solution.
+     * @return shortest solution or empty Optional if the solver found none.
+     */
+    public Optional<List<TwoPhaseMove<Position>>> solve(
+            PuzzleState state, Function<PuzzleState, Optional<List<TwoPhaseMove<Position>>>> solver) {
+        var cached = get(state);
+        if (cached.isPresent()) {
+            return cached;
+        }
+        var solution = solver.apply(state);
+        solution.ifPresent(moves -> put(state, moves));
+        return solution;
+    }
+
+    /**
+     * {@return the number of cached states}
+     */
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    /**
+     * {@return the maximum number of cached states}
+     */
+    public int capacity() {
+        return capacity;
+    }
+
+    /**
+     * {@return the number of lookups that found a solution}
+     */
+    public synchronized long hits() {
+        return hits;
+    }
+
+    /**
+     * {@return the number of lookups that found nothing}
+     */
+    public synchronized long misses() {
+        return misses;
+    }
+
+    /**
+     * {@return the number of states dropped to stay within the capacity}
+     */
+    public synchronized long evictions() {
+        return evictions;
+    }
+}
@@ -0,0 +1,193 @@
+package solver;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import model.PuzzleState;
+import org.tinylog.Logger;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Long-running HTTP server answering hint and solve queries on the loopback interface.
+ * The {@link DistanceTable} stays in memory, so a hint is a handful of table lookups and a solution
+ * is read off the table move by move; no query searches. Solutions go through one {@link BatchSolver},
+ * so concurrent queries of identical or symmetric states wait for a single computation and later
+ * ones reuse it. Every exchange runs on its own virtual thread.
+ *
+ * <p>Endpoints, states written as for {@link BatchSolver#parse}:
+ * <ul>
+ *     <li>{@code GET /hint?state=STATE}: the first move of a shortest solution, or {@code none}.</li>
+ *     <li>{@code GET /solve?state=STATE}: the number of moves ({@code -1} if unsolvable), a tab and the moves.</li>
+ *     <li>{@code POST /hint} and {@code POST /solve}: one state per line in the body and one answer
+ *     line per state, prefixed with its line number and a tab, so many small queries share one
+ *     round trip.</li>
+ *     <li>{@code GET /metrics}: per endpoint the number of requests, the throughput since the start
+ *     and the mean, p50 and p99 latency in microseconds.</li>
+ * </ul>
+ * A state that cannot be parsed is answered with status 400, any other failure with status 500.
+ *
+ * <p>The JDK server only disables Nagle's algorithm when the JVM is started with
+ * {@code -Dsun.net.httpserver.nodelay=true}, which {@link ServerMain} sets. Without it the headers and
+ * the body of a small answer go out as two segments, and the second one waits for the delayed
+ * acknowledgement of the first, about 40 ms per request.
+ */
+public final class SolveServer implements AutoCloseable {
+    private static final String HINT = "/hint";
+    private static final String SOLVE = "/solve";
+    private static final String METRICS = "/metrics";
+    private static final int STOP_DELAY_SECONDS = 1;
+
+    private final DistanceTable table;
+    private final BatchSolver solver;
+    private final HttpServer server;
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+    private final Map<String, LatencyHistogram> latencies = new LinkedHashMap<>();
+    private final long startTime = System.nanoTime();
+
+    /**
+     * Creates a server and starts listening.
+     * @param table distance table answering the queries.
+     * @param port port on the loopback interface, 0 for any free port.
+     * @throws IOException if the port cannot be bound.
+     */
+    public SolveServer(DistanceTable table, int port) throws IOException {
+        this.table = table;
+        this.solver = new BatchSolver(table);
+        for (var path : List.of(HINT, SOLVE, METRICS)) {
+            latencies.put(path, new LatencyHistogram());
+        }
+        server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), port), 0);
+        server.setExecutor(executor);
+        server.createContext(HINT, exchange -> handle(exchange, HINT, this::hint));
+        server.createContext(SOLVE, exchange -> handle(exchange, SOLVE, this::solve));
+        server.createContext(METRICS, exchange -> handle(exchange, METRICS, state -> metrics()));
+        server.start();
+        Logger.info("Solve server listening on {}", server.getAddress());
+    }
+
+    /**
+     * {@return the port the server listens on}
+     */
+    public int port() {
+        return server.getAddress().getPort();
+    }
+
+    /**
+     * Method for stopping the server.
+     * It stops accepting connections at once and gives the exchanges in progress up to
+     * {@value #STOP_DELAY_SECONDS} second to finish before their connections are closed.
+     */
+    @Override
+    public void close() {
+        server.stop(STOP_DELAY_SECONDS);
+        executor.close();
+        Logger.info("Solve server stopped");
+    }
+
+    /**
+     * Method for answering an exchange and recording its latency.
+     * @param answer computes the answer line of one state; receives {@code null} for requests without a state.
+     */
+    private void handle(HttpExchange exchange, String path, Answer answer) throws IOException {
+        var start = System.nanoTime();
+        try (exchange) {
+            int status;
+            String body;
+            try {
+                status = 200;
+                body = switch (exchange.getRequestMethod()) {
+                    case "GET" -> answer.apply(path.equals(METRICS) ? null : queryState(exchange)) + "\n";
+                    case "POST" -> path.equals(METRICS) ? null : answerLines(exchange, answer);
+                    default -> null;
+                };
+                if (body == null) {
+                    status = 405;
+                    body = "Method not allowed\n";
+                }
+            } catch (IllegalArgumentException e) {
+                status = 400;
+                body = e.getMessage() + "\n";
+            } catch (RuntimeException e) {
+                Logger.error(e, "Failed to answer {}", exchange.getRequestURI());
+                status = 500;
+                body = "Internal error\n";
+            }
+            var bytes = body.getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().set("Content-Type", "text/plain; charset=utf-8");
+            exchange.sendResponseHeaders(status, bytes.length);
+            exchange.getResponseBody().write(bytes);
+        } finally {
+            latencies.get(path).record(System.nanoTime() - start);
+        }
+    }
+
+    private static PuzzleState queryState(HttpExchange exchange) {
+        var query = exchange.getRequestURI().getRawQuery();
+        if (query != null) {
+            for (var parameter : query.split("&")) {
+                if (parameter.startsWith("state=")) {
+                    return BatchSolver.parse(URLDecoder.decode(parameter.substring(6), StandardCharsets.UTF_8));
+                }
+            }
+        }
+        throw new IllegalArgumentException("Missing state parameter");
+    }
+
+    private static String answerLines(HttpExchange exchange, Answer answer) throws IOException {
+        var lines = new String(exchange.getRequestBody().readAllBytes(), StandardCharsets.UTF_8).split("\\R");
+        var states = new ArrayList<PuzzleState>(lines.length);
+        var lineNumbers = new ArrayList<Integer>(lines.length);
+        for (var index = 0; index < lines.length; index++) {
+            if (!lines[index].isBlank()) {
+                try {
+                    states.add(BatchSolver.parse(lines[index]));
+                } catch (IllegalArgumentException e) {
+                    throw new IllegalArgumentException(String.format("Line %d: %s", index + 1, e.getMessage()));
+                }
+                lineNumbers.add(index + 1);
+            }
+        }
+        var body = new StringBuilder();
+        for (var index = 0; index < states.size(); index++) {
+            body.append(lineNumbers.get(index)).append('\t').append(answer.apply(states.get(index))).append('\n');
+        }
+        return body.toString();
+    }
+
+    private String hint(PuzzleState state) {
+        return table.hint(state).map(move -> BatchSolver.format(List.of(move))).orElse("none");
+    }
+
+    private String solve(PuzzleState state) {
+        return solver.solve(0, state).solution()
+                .map(moves -> moves.size() + "\t" + BatchSolver.format(moves))
+                .orElse("-1");
+    }
+
+    private String metrics() {
+        var seconds = Math.max(1e-9, (System.nanoTime() - startTime) / 1e9);
+        var body = new StringBuilder("endpoint\trequests\tper_second\tmean_us\tp50_us\tp99_us");
+        latencies.forEach((path, histogram) -> body.append(String.format("%n%s\t%d\t%.1f\t%.1f\t%.1f\t%.1f",
+                path, histogram.count(), histogram.count() / seconds, histogram.mean() / 1e3,
+                histogram.percentile(50) / 1e3, histogram.percentile(99) / 1e3)));
+        return body.toString();
+    }
+
+    /**
+     * Answer line of one state.
+     */
+    @FunctionalInterface
+    private interface Answer {
+        String apply(PuzzleState state);
+    }
+}
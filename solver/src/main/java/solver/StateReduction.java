@@ -0,0 +1,45 @@
+package solver;
+
+import model.PackedState;
+
+/**
+ * How a search merges states that are equivalent for solving.
+ * Moves are recorded by cell together with the symmetry that mapped each state onto its key, so
+ * solutions found on keys are mapped back to moves of the concrete start state.
+ */
+public enum StateReduction {
+    /**
+     * Every piece is told apart.
+     */
+    NONE,
+    /**
+     * Same-colour pieces are interchangeable, see {@link PackedState#canonical}.
+     */
+    COLOURS,
+    /**
+     * Same-colour pieces are interchangeable and symmetric states are merged, see
+     * {@link PackedState#representative}.
+     */
+    SYMMETRY;
+
+    /**
+     * {@return index of the symmetry that maps the state onto its key}
+     * @param packed packed state.
+     */
+    int symmetryOf(long packed) {
+        return this == SYMMETRY ? PackedState.representativeSymmetry(packed) : 0;
+    }
+
+    /**
+     * {@return the key of the state}
+     * @param packed packed state.
+     * @param symmetry index returned by {@link #symmetryOf} for the same state.
+     */
+    long key(long packed, int symmetry) {
+        return switch (this) {
+            case NONE -> packed;
+            case COLOURS -> PackedState.canonical(packed);
+            case SYMMETRY -> PackedState.canonical(PackedState.transform(packed, symmetry));
+        };
+    }
+}
@@ -0,0 +1,109 @@
+package solver;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Fixed-size lock-free cache of searched states for depth-first solvers.
+ * Each slot holds a 64-bit {@link model.PuzzleState#zobristHash() Zobrist hash} and a payload, stored
+ * as {@code hash ^ payload} next to the payload itself. Threads write the two words without locking;
+ * a reader that sees words from two different writes gets a hash that does not match and treats the
+ * slot as empty, so a torn entry can never be returned. A new entry always replaces the old one of
+ * its slot.
+ *
+ * <p>The payload used by {@link IterativeDeepeningAStar} is the bound of the iteration and the depth
+ * the state was reached at, see {@link #entry}.
+ */
+public final class TranspositionTable {
+    /**
+     * Payload returned by {@link #probe} when the state is not in the table.
+     */
+    public static final long MISSING = -1L;
+
+    private static final int DEPTH_BITS = 32;
+    private static final long DEPTH_MASK = (1L << DEPTH_BITS) - 1;
+
+    private final AtomicLongArray slots;
+    private final int mask;
+
+    /**
+     * Creates a table with room for at least the given number of entries.
+     * @param capacity number of entries, rounded up to a power of two.
+     */
+    public TranspositionTable(int capacity) {
+        if (capacity <= 0 || capacity > 1 << 29) {
+            throw new IllegalArgumentException(String.format("Invalid capacity: %d", capacity));
+        }
+        var size = Integer.highestOneBit(capacity * 2 - 1);
+        this.slots = new AtomicLongArray(size * 2);
+        this.mask = size - 1;
+        clear();
+    }
+
+    /**
+     * {@return the number of entries the table can hold}
+     */
+    public int capacity() {
+        return mask + 1;
+    }
+
+    /**
+     * Method for looking up a state.
+     * @param hash Zobrist hash of the state.
+     * @return stored payload, or {@link #MISSING} if the state is not in the table.
+     */
+    public long probe(long hash) {
+        var slot = slotOf(hash);
+        var payload = slots.getAcquire(slot + 1);
+        var check = slots.getAcquire(slot);
+        return (check ^ payload) == hash && payload != MISSING ? payload : MISSING;
+    }
+
+    /**
+     * Method for storing a state, replacing whatever was stored in its slot.
+     * @param hash Zobrist hash of the state.
+     * @param payload non-negative payload.
+     */
+    public void store(long hash, long payload) {
+        var slot = slotOf(hash);
+        slots.setRelease(slot, hash ^ payload);
+        slots.setRelease(slot + 1, payload);
+    }
+
+    /**
+     * Method for removing every entry.
+     */
+    public void clear() {
+        for (var index = 0; index < slots.length(); index++) {
+            slots.setRelease(index, index % 2 == 0 ? 0 : MISSING);
+        }
+    }
+
+    /**
+     * {@return payload recording that a state was searched at {@code depth} within {@code bound}}
+     * @param bound bound of the iteration.
+     * @param depth number of moves from the start to the state.
+     */
+    public static long entry(int bound, int depth) {
+        return (long) bound << DEPTH_BITS | depth;
+    }
+
+    /**
+     * {@return the bound of a payload created by {@link #entry}}
+     * @param payload stored payload.
+     */
+    public static int boundOf(long payload) {
+        return (int) (payload >>> DEPTH_BITS);
+    }
+
+    /**
+     * {@return the depth of a payload created by {@link #entry}}
+     * @param payload stored payload.
+     */
+    public static int depthOf(long payload) {
+        return (int) (payload & DEPTH_MASK);
+    }
+
+    private int slotOf(long hash) {
+        return (int) ((hash ^ hash >>> 32) & mask) << 1;
+    }
+}
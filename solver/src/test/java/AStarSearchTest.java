@@ -0,0 +1,35 @@
+import model.PuzzleState;
+import org.junit.jupiter.api.Test;
+import solver.AStarSearch;
+import solver.StateReduction;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class AStarSearchTest {
+    PuzzleState ps = new PuzzleState();
+
+    @Test
+    public void test_search() {
+        var result = new AStarSearch().search(ps);
+        var moves = result.solution().orElseThrow();
+        assertEquals(62, moves.size());
+        assertTrue(result.expandedNodes() > 0);
+
+        var state = ps.clone();
+        moves.forEach(state::makeMove);
+        assertTrue(state.isSolved());
+    }
+
+    @Test
+    public void test_search_symmetry() {
+        var moves = new AStarSearch(StateReduction.SYMMETRY).search(ps).solution().orElseThrow();
+        assertEquals(62, moves.size());
+
+        var state = ps.clone();
+        for (var move : moves) {
+            assertTrue(state.isLegalMove(move));
+            state.makeMove(move);
+        }
+        assertTrue(state.isSolved());
+    }
+}
@@ -0,0 +1,111 @@
+import model.BoardTopology;
+import model.PuzzleState;
+import org.junit.jupiter.api.Test;
+import solver.AnytimeWeightedAStar;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class AnytimeWeightedAStarTest {
+    PuzzleState ps = new PuzzleState();
+
+    @Test
+    public void test_search() {
+        var result = new AnytimeWeightedAStar().search(ps, Duration.ofMinutes(1));
+        assertTrue(result.complete());
+        assertEquals(62, result.solution().orElseThrow().size());
+        assertEquals(62, result.lowerBound());
+        assertEquals(0, result.maxExcessMoves().getAsInt());
+
+        var state = ps.clone();
+        for (var move : result.solution().orElseThrow()) {
+            assertTrue(state.isLegalMove(move));
+            state.makeMove(move);
+        }
+        assertTrue(state.isSolved());
+    }
+
+    @Test
+    public void test_search_nodeLimit() {
+        var result = new AnytimeWeightedAStar().search(ps, Duration.ofMinutes(1), 1000);
+        assertFalse(result.complete());
+        assertEquals(1000, result.expandedNodes());
+        assertTrue(result.lowerBound() <= 62);
+    }
+
+    @Test
+    public void test_search_largeBoard() {
+        var topology = BoardTopology.grid(
+                "GGGGG",
+                "o.o.o",
+                "ooooo",
+                ".o.o.",
+                "ooooo",
+                "RRRRR"
+        );
+        var start = new PuzzleState(topology);
+        var result = new AnytimeWeightedAStar(3).search(start, Duration.ofHours(1), 10_000);
+        assertEquals(10_000, result.expandedNodes());
+        assertFalse(result.complete());
+        var moves = result.solution().orElseThrow();
+        assertTrue(result.lowerBound() <= moves.size());
+        assertEquals(moves.size() - result.lowerBound(), result.maxExcessMoves().getAsInt());
+
+        var state = start.clone();
+        for (var move : moves) {
+            assertTrue(state.isLegalMove(move));
+            state.makeMove(move);
+        }
+        assertTrue(state.isSolved());
+    }
+
+    @Test
+    public void test_search_wideBoardTimeLimit() {
+        var topology = BoardTopology.grid(
+                "GGGGGG",
+                "oooooo",
+                "o.oo.o",
+                "oooooo",
+                "RRRRRR"
+        );
+        var start = new PuzzleState(topology);
+        var begin = System.nanoTime();
+        var result = new AnytimeWeightedAStar(3).search(start, Duration.ofMillis(50));
+        var elapsed = Duration.ofNanos(System.nanoTime() - begin);
+        assertTrue(elapsed.compareTo(Duration.ofSeconds(2)) < 0, elapsed.toString());
+        assertFalse(result.complete());
+        assertTrue(result.lowerBound() > 0);
+    }
+
+    @Test
+    public void test_search_fewerPiecesThanTargetCells() {
+        var topology = BoardTopology.grid(
+                "GGoo",
+                "o.oo",
+                "oooo",
+                "RRoo"
+        );
+        var start = new PuzzleState(topology);
+        var bound = new AnytimeWeightedAStar(1).search(start, Duration.ofMinutes(1), 1).lowerBound();
+        assertTrue(bound > 0);
+
+        var result = new AnytimeWeightedAStar(1).search(start, Duration.ofMinutes(1));
+        assertTrue(result.complete());
+        var moves = result.solution().orElseThrow();
+        assertTrue(bound <= moves.size());
+        assertEquals(moves.size(), result.lowerBound());
+
+        var state = start.clone();
+        for (var move : moves) {
+            assertTrue(state.isLegalMove(move));
+            state.makeMove(move);
+        }
+        assertTrue(state.isSolved());
+    }
+
+    @Test
+    public void test_constructor_ShouldRejectSmallWeight() {
+        assertThrows(IllegalArgumentException.class, () -> new AnytimeWeightedAStar(0.5));
+    }
+}
@@ -0,0 +1,86 @@
+import model.Position;
+import model.PuzzleState;
+import org.junit.jupiter.api.Test;
+import solver.BatchResult;
+import solver.BatchSolver;
+import solver.DistanceTable;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class BatchSolverTest {
+    @Test
+    public void test_parse() {
+        assertEquals(new PuzzleState(), BatchSolver.parse("(0, 0) (0, 1) (0, 2) (4, 0) (4, 1) (4, 2)"));
+        assertThrows(IllegalArgumentException.class, () -> BatchSolver.parse("(0, 0) (0, 1)"));
+        assertThrows(IllegalArgumentException.class, () -> BatchSolver.parse("(0, 0) (0, 0) (0, 2) (4, 0) (4, 1) (4, 2)"));
+        assertThrows(IllegalArgumentException.class, () -> BatchSolver.parse("(0, 0) (1, 0) (0, 2) (4, 0) (4, 1) (4, 2)"));
+    }
+
+    @Test
+    public void test_solveAll() {
+        var start = new PuzzleState();
+        var duplicate = new PuzzleState(
+                new Position(0, 0), new Position(0, 1), new Position(0, 2),
+                new Position(4, 0), new Position(4, 1), new Position(4, 2)
+        );
+        var other = new PuzzleState(
+                new Position(0, 0), new Position(1, 1), new Position(0, 2),
+                new Position(4, 0), new Position(4, 1), new Position(4, 2)
+        );
+        var mirroredOther = new PuzzleState(
+                new Position(0, 0), new Position(0, 1), new Position(0, 2),
+                new Position(4, 0), new Position(3, 1), new Position(4, 2)
+        );
+        var solver = new BatchSolver(DistanceTable.build());
+        var results = new ArrayList<BatchResult>();
+        solver.solveAll(List.of(start, duplicate, other, mirroredOther), results::add);
+
+        assertEquals(4, results.size());
+        assertEquals(2, solver.distinctStates());
+        for (var result : results) {
+            var state = result.start().clone();
+            var moves = result.solution().orElseThrow();
+            for (var move : moves) {
+                assertTrue(state.isLegalMove(move));
+                state.makeMove(move);
+            }
+            assertTrue(state.isSolved());
+            assertEquals(result.index() < 2 ? 62 : 61, moves.size());
+        }
+    }
+
+    @Test
+    public void test_solveAll_rethrowsFailure() {
+        var solver = new BatchSolver(DistanceTable.build());
+        var results = new ArrayList<BatchResult>();
+        assertThrows(NullPointerException.class,
+                () -> solver.solveAll(Arrays.asList(new PuzzleState(), null), results::add));
+        assertEquals(1, results.size());
+        assertEquals(0, results.get(0).index());
+    }
+
+    @Test
+    public void test_solve_beyondCacheCapacity() {
+        var other = new PuzzleState(
+                new Position(0, 0), new Position(1, 1), new Position(0, 2),
+                new Position(4, 0), new Position(4, 1), new Position(4, 2)
+        );
+        var solver = new BatchSolver(DistanceTable.build(), 1);
+
+        assertEquals(62, solver.solve(0, new PuzzleState()).solution().orElseThrow().size());
+        assertEquals(61, solver.solve(1, other).solution().orElseThrow().size());
+        assertEquals(62, solver.solve(2, new PuzzleState()).solution().orElseThrow().size());
+        assertEquals(1, solver.distinctStates());
+        assertThrows(IllegalArgumentException.class, () -> new BatchSolver(null, -1));
+    }
+
+    @Test
+    public void test_solve_withoutTable() {
+        var result = new BatchSolver().solve(0, new PuzzleState());
+        assertEquals(62, result.solution().orElseThrow().size());
+    }
+}
@@ -0,0 +1,54 @@
+import model.PuzzleState;
+import org.junit.jupiter.api.Test;
+import solver.BidirectionalBreadthFirstSearch;
+import solver.PackedBreadthFirstSearch;
+import solver.StateReduction;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class BidirectionalBreadthFirstSearchTest {
+    @Test
+    public void test_search() {
+        var state = new PuzzleState();
+        var result = new BidirectionalBreadthFirstSearch().search(state);
+        var moves = result.solution().orElseThrow();
+        assertEquals(62, moves.size());
+
+        for (var move : moves) {
+            assertTrue(state.isLegalMove(move));
+            state.makeMove(move);
+        }
+        assertTrue(state.isSolved());
+    }
+
+    @Test
+    public void test_search_fromSolvedState() {
+        var state = new PuzzleState();
+        new PackedBreadthFirstSearch().solve(state).orElseThrow().forEach(state::makeMove);
+        assertEquals(0, new BidirectionalBreadthFirstSearch().search(state).solution().orElseThrow().size());
+    }
+
+    @Test
+    public void test_search_canonical() {
+        var state = new PuzzleState();
+        var moves = new BidirectionalBreadthFirstSearch(StateReduction.COLOURS).search(state).solution().orElseThrow();
+        assertEquals(62, moves.size());
+        moves.forEach(state::makeMove);
+        assertTrue(state.isSolved());
+    }
+
+    @Test
+    public void test_search_symmetry() {
+        var state = new PuzzleState();
+        new PackedBreadthFirstSearch().solve(state).orElseThrow().stream().limit(20).forEach(state::makeMove);
+        var expected = new PackedBreadthFirstSearch().solve(state).orElseThrow().size();
+        var moves = new BidirectionalBreadthFirstSearch(StateReduction.SYMMETRY).search(state).solution().orElseThrow();
+        assertEquals(expected, moves.size());
+
+        for (var move : moves) {
+            assertTrue(state.isLegalMove(move));
+            state.makeMove(move);
+        }
+        assertTrue(state.isSolved());
+    }
+}
@@ -0,0 +1,42 @@
+import model.PuzzleState;
+import org.junit.jupiter.api.Test;
+import solver.DistanceDatabase;
+import solver.DistanceTable;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.StandardOpenOption;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class DistanceDatabaseTest {
+    @Test
+    public void test_writeAndLoad() throws IOException {
+        var path = Files.createTempFile("distances", ".db");
+        try {
+            DistanceDatabase.write(DistanceTable.build(), path);
+            var table = DistanceDatabase.load(path);
+            assertEquals(62, table.distance(new PuzzleState()));
+            assertTrue(table.hint(new PuzzleState()).isPresent());
+        } finally {
+            Files.deleteIfExists(path);
+        }
+    }
+
+    @Test
+    public void test_load_ShouldRejectCorruptedFile() throws IOException {
+        var path = Files.createTempFile("distances", ".db");
+        try {
+            DistanceDatabase.write(DistanceTable.build(), path);
+            try (var channel = FileChannel.open(path, StandardOpenOption.WRITE)) {
+                channel.write(ByteBuffer.wrap(new byte[]{42}), channel.size() - 1);
+            }
+            assertThrows(IOException.class, () -> DistanceDatabase.load(path));
+            assertEquals(62, DistanceDatabase.loadOrBuild(path).distance(new PuzzleState()));
+        } finally {
+            Files.deleteIfExists(path);
+        }
+    }
+}
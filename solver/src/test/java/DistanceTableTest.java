@@ -0,0 +1,35 @@
+import model.Position;
+import model.PuzzleState;
+import org.junit.jupiter.api.Test;
+import solver.DistanceTable;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class DistanceTableTest {
+    DistanceTable table = DistanceTable.build();
+
+    @Test
+    public void test_distance() {
+        assertEquals(62, table.distance(new PuzzleState()));
+        assertEquals(0, table.distance(new PuzzleState(
+                new Position(4, 0), new Position(4, 1), new Position(4, 2),
+                new Position(0, 0), new Position(0, 1), new Position(0, 2)
+        )));
+    }
+
+    @Test
+    public void test_hint() {
+        var state = new PuzzleState();
+        var moves = 0;
+        while (!state.isSolved()) {
+            var distance = table.distance(state);
+            var move = table.hint(state).orElseThrow();
+            assertTrue(state.isLegalMove(move));
+            state.makeMove(move);
+            assertEquals(distance - 1, table.distance(state));
+            moves++;
+        }
+        assertEquals(62, moves);
+        assertTrue(table.hint(state).isEmpty());
+    }
+}
@@ -0,0 +1,113 @@
+import model.BoardTopology;
+import model.PuzzleState;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import solver.ExternalBreadthFirstSearch;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ExternalBreadthFirstSearchTest {
+    PuzzleState ps = new PuzzleState();
+    Path directory;
+
+    @BeforeEach
+    public void setUp() throws IOException {
+        directory = Files.createTempDirectory("bfs");
+    }
+
+    @AfterEach
+    public void tearDown() throws IOException {
+        try (var files = Files.walk(directory)) {
+            for (var file : files.sorted(Comparator.reverseOrder()).toList()) {
+                Files.delete(file);
+            }
+        }
+    }
+
+    @Test
+    public void test_solve() throws IOException {
+        var search = new ExternalBreadthFirstSearch(directory, ExternalBreadthFirstSearch.MIN_HEAP_BUDGET);
+        var moves = search.solve(ps).orElseThrow();
+        assertEquals(62, moves.size());
+        assertTrue(search.getExpandedStates() <= 120 * 35);
+
+        var state = ps.clone();
+        for (var move : moves) {
+            assertTrue(state.isLegalMove(move));
+            state.makeMove(move);
+        }
+        assertTrue(state.isSolved());
+        try (var files = Files.list(directory)) {
+            assertEquals(0, files.count());
+        }
+    }
+
+    @Test
+    public void test_solve_resumesAfterLastCompletedLayer() throws IOException {
+        var search = new ExternalBreadthFirstSearch(directory, ExternalBreadthFirstSearch.MIN_HEAP_BUDGET);
+        assertTrue(search.solve(ps, 20).isEmpty());
+        assertEquals(20, search.completedLayers(ps));
+        Files.write(directory.resolve("run-21-0.bin"), new byte[]{1, 2, 3});
+        Files.write(directory.resolve("layer-21.bin.tmp"), new byte[]{4, 5});
+
+        var moves = new ExternalBreadthFirstSearch(directory, 1 << 20).solve(ps).orElseThrow();
+        assertEquals(62, moves.size());
+        var state = ps.clone();
+        moves.forEach(state::makeMove);
+        assertTrue(state.isSolved());
+        assertEquals(-1, search.completedLayers(ps));
+    }
+
+    @Test
+    public void test_solve_otherBoard() throws IOException {
+        var topology = BoardTopology.grid(
+                "GGGG",
+                ".o..",
+                "oooo",
+                "..o.",
+                "RRRR"
+        );
+        var start = new PuzzleState(topology);
+        var moves = new ExternalBreadthFirstSearch(directory, ExternalBreadthFirstSearch.MIN_HEAP_BUDGET)
+                .solve(start).orElseThrow();
+
+        var state = start.clone();
+        for (var move : moves) {
+            assertTrue(state.isLegalMove(move));
+            state.makeMove(move);
+        }
+        assertTrue(state.isSolved());
+    }
+
+    @Test
+    public void test_solve_mergesMoreRunsThanFanIn() throws IOException {
+        var topology = BoardTopology.grid(
+                "GGGoo",
+                "ooooo",
+                "ooooo",
+                "ooooo",
+                "RRRoo"
+        );
+        var start = new PuzzleState(topology);
+        var small = new ExternalBreadthFirstSearch(directory, ExternalBreadthFirstSearch.MIN_HEAP_BUDGET);
+        assertTrue(small.solve(start, 8).isEmpty());
+        try (var files = Files.list(directory)) {
+            assertTrue(files.noneMatch(file -> file.getFileName().toString().startsWith("run-")));
+        }
+
+        var large = new ExternalBreadthFirstSearch(Files.createTempDirectory(directory, "large"), 1 << 26);
+        assertTrue(large.solve(start, 8).isEmpty());
+        assertEquals(large.getExpandedStates(), small.getExpandedStates());
+    }
+
+    @Test
+    public void test_constructor_ShouldRejectSmallBudget() {
+        assertThrows(IllegalArgumentException.class, () -> new ExternalBreadthFirstSearch(directory, 1024));
+    }
+}
@@ -0,0 +1,30 @@
+import model.PuzzleState;
+import org.junit.jupiter.api.Test;
+import solver.IterativeDeepeningAStar;
+import solver.PackedBreadthFirstSearch;
+import solver.TranspositionTable;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class IterativeDeepeningAStarTest {
+    @Test
+    public void test_search() {
+        var state = new PuzzleState();
+        var optimal = new PackedBreadthFirstSearch().solve(state).orElseThrow();
+        optimal.subList(0, 50).forEach(state::makeMove);
+
+        var moves = new IterativeDeepeningAStar().search(state).solution().orElseThrow();
+        assertEquals(12, moves.size());
+        moves.forEach(state::makeMove);
+        assertTrue(state.isSolved());
+    }
+
+    @Test
+    public void test_search_fromStart() {
+        var state = new PuzzleState();
+        var moves = new IterativeDeepeningAStar(new TranspositionTable(1 << 16)).search(state).solution().orElseThrow();
+        assertEquals(62, moves.size());
+        moves.forEach(state::makeMove);
+        assertTrue(state.isSolved());
+    }
+}
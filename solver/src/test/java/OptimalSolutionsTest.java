@@ -0,0 +1,48 @@
+import model.PuzzleState;
+import org.junit.jupiter.api.Test;
+import solver.DistanceTable;
+import solver.OptimalSolutions;
+import solver.PackedBreadthFirstSearch;
+
+import java.math.BigInteger;
+import java.util.HashSet;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class OptimalSolutionsTest {
+    OptimalSolutions solutions = new OptimalSolutions(DistanceTable.build());
+
+    @Test
+    public void test_count_matchesStream() {
+        var state = new PuzzleState();
+        new PackedBreadthFirstSearch().solve(state).orElseThrow().subList(0, 50).forEach(state::makeMove);
+
+        var distinct = new HashSet<>();
+        solutions.stream(state).forEach(moves -> {
+            assertEquals(12, moves.size());
+            var copy = state.clone();
+            moves.forEach(copy::makeMove);
+            assertTrue(copy.isSolved());
+            distinct.add(moves);
+        });
+        assertEquals(BigInteger.valueOf(distinct.size()), solutions.count(state));
+    }
+
+    @Test
+    public void test_stream_isLazy() {
+        var state = new PuzzleState();
+        assertTrue(solutions.count(state).compareTo(BigInteger.valueOf(1_000_000_000L)) > 0);
+        var first = solutions.stream(state).limit(5).toList();
+        assertEquals(5, first.size());
+        assertEquals(5, new HashSet<>(first).size());
+        first.forEach(moves -> assertEquals(62, moves.size()));
+    }
+
+    @Test
+    public void test_solvedState() {
+        var state = new PuzzleState();
+        new PackedBreadthFirstSearch().solve(state).orElseThrow().forEach(state::makeMove);
+        assertEquals(BigInteger.ONE, solutions.count(state));
+        assertEquals(1, solutions.stream(state).count());
+    }
+}
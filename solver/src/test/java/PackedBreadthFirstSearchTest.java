@@ -0,0 +1,48 @@
+import model.PuzzleState;
+import org.junit.jupiter.api.Test;
+import solver.PackedBreadthFirstSearch;
+import solver.StateReduction;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class PackedBreadthFirstSearchTest {
+    PuzzleState ps = new PuzzleState();
+
+    @Test
+    public void test_solve() {
+        var moves = new PackedBreadthFirstSearch().solve(ps).orElseThrow();
+        assertEquals(62, moves.size());
+
+        var state = ps.clone();
+        for (var move : moves) {
+            assertTrue(state.isLegalMove(move));
+            state.makeMove(move);
+        }
+        assertTrue(state.isSolved());
+    }
+
+    @Test
+    public void test_solve_canonical() {
+        var search = new PackedBreadthFirstSearch(StateReduction.COLOURS);
+        var moves = search.solve(ps).orElseThrow();
+        assertEquals(62, moves.size());
+        assertTrue(search.getExpandedStates() <= 120 * 35);
+
+        var state = ps.clone();
+        moves.forEach(state::makeMove);
+        assertTrue(state.isSolved());
+    }
+
+    @Test
+    public void test_solve_symmetry() {
+        var moves = new PackedBreadthFirstSearch(StateReduction.SYMMETRY).solve(ps).orElseThrow();
+        assertEquals(62, moves.size());
+
+        var state = ps.clone();
+        for (var move : moves) {
+            assertTrue(state.isLegalMove(move));
+            state.makeMove(move);
+        }
+        assertTrue(state.isSolved());
+    }
+}
@@ -0,0 +1,42 @@
+import model.PackedState;
+import model.PuzzleState;
+import model.StateIndexer;
+import org.junit.jupiter.api.Test;
+import solver.DistanceTable;
+import solver.ParallelBreadthFirstSearch;
+
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ParallelBreadthFirstSearchTest {
+    PuzzleState ps = new PuzzleState();
+
+    @Test
+    public void test_solve() {
+        var search = new ParallelBreadthFirstSearch(new ForkJoinPool(4));
+        var moves = search.solve(ps).orElseThrow();
+        assertEquals(62, moves.size());
+        assertTrue(search.getExpandedStates() > 0);
+
+        var state = ps.clone();
+        for (var move : moves) {
+            assertTrue(state.isLegalMove(move));
+            state.makeMove(move);
+        }
+        assertTrue(state.isSolved());
+        assertEquals(62, search.solve(ps).orElseThrow().size());
+    }
+
+    @Test
+    public void test_buildDistanceTable() {
+        var sequential = DistanceTable.build();
+        var parallel = DistanceTable.build(new ForkJoinPool(4));
+        var indexer = StateIndexer.canonical();
+        for (var index = 0; index < indexer.size(); index++) {
+            var packed = indexer.packedAt(index);
+            assertEquals(sequential.distance(packed), parallel.distance(packed));
+        }
+        assertEquals(62, parallel.distance(PackedState.pack(ps)));
+    }
+}
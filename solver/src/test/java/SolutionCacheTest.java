@@ -0,0 +1,58 @@
+import model.PackedState;
+import model.PuzzleState;
+import org.junit.jupiter.api.Test;
+import solver.PackedBreadthFirstSearch;
+import solver.SolutionCache;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class SolutionCacheTest {
+    PuzzleState ps = new PuzzleState();
+
+    @Test
+    public void test_suffixHits() {
+        var cache = new SolutionCache(1000);
+        var search = new PackedBreadthFirstSearch();
+        var solution = cache.solve(ps, search::solve).orElseThrow();
+        assertEquals(62, solution.size());
+        assertEquals(1, cache.misses());
+        assertEquals(63, cache.size());
+
+        var state = ps.clone();
+        solution.subList(0, 10).forEach(state::makeMove);
+        var suffix = cache.get(state).orElseThrow();
+        assertEquals(52, suffix.size());
+
+        var mirrored = PackedState.unpack(PackedState.transform(PackedState.pack(state), 1));
+        var moves = cache.get(mirrored).orElseThrow();
+        assertEquals(52, moves.size());
+        for (var move : moves) {
+            assertTrue(mirrored.isLegalMove(move));
+            mirrored.makeMove(move);
+        }
+        assertTrue(mirrored.isSolved());
+        assertEquals(2, cache.hits());
+    }
+
+    @Test
+    public void test_eviction() {
+        var cache = new SolutionCache(8);
+        var solution = new PackedBreadthFirstSearch().solve(ps).orElseThrow();
+        cache.put(ps, solution);
+        assertEquals(2, cache.size());
+        assertEquals(0, cache.evictions());
+        assertEquals(62, cache.get(ps).orElseThrow().size());
+
+        var state = ps.clone();
+        for (var offset = 0; offset < 40; offset++) {
+            state.makeMove(solution.get(offset));
+            if (offset % 10 == 9) {
+                cache.put(state, solution.subList(offset + 1, solution.size()));
+            }
+        }
+        assertEquals(8, cache.size());
+        assertEquals(2, cache.evictions());
+        assertTrue(cache.get(ps).isEmpty());
+        assertEquals(22, cache.get(state).orElseThrow().size());
+    }
+}
@@ -0,0 +1,65 @@
+import org.junit.jupiter.api.Test;
+import solver.DistanceTable;
+import solver.SolveServer;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class SolveServerTest {
+    static final String START = "(0, 0) (0, 1) (0, 2) (4, 0) (4, 1) (4, 2)";
+
+    HttpClient client = HttpClient.newHttpClient();
+
+    @Test
+    public void test_hintAndSolve() throws IOException, InterruptedException {
+        try (var server = new SolveServer(DistanceTable.build(), 0)) {
+            var query = "?state=" + URLEncoder.encode(START, StandardCharsets.UTF_8);
+            var hint = get(server, "/hint" + query);
+            assertEquals(200, hint.statusCode());
+            assertTrue(hint.body().endsWith("DOWN\n"));
+
+            var solve = get(server, "/solve" + query);
+            assertEquals(200, solve.statusCode());
+            assertTrue(solve.body().startsWith("62\t"));
+
+            var batch = post(server, "/solve", START + "\n\n(0, 0) (0, 1) (0, 2) (4, 0) (3, 1) (4, 2)\n");
+            assertEquals(200, batch.statusCode());
+            var lines = batch.body().split("\n");
+            assertEquals(2, lines.length);
+            assertTrue(lines[0].startsWith("1\t62\t"));
+            assertTrue(lines[1].startsWith("3\t"));
+
+            var metrics = get(server, "/metrics").body();
+            assertTrue(metrics.contains("/hint\t1\t"));
+            assertTrue(metrics.contains("/solve\t2\t"));
+        }
+    }
+
+    @Test
+    public void test_invalidState() throws IOException, InterruptedException {
+        try (var server = new SolveServer(DistanceTable.build(), 0)) {
+            assertEquals(400, get(server, "/hint?state=" + URLEncoder.encode("(0, 0)", StandardCharsets.UTF_8)).statusCode());
+            assertEquals(400, get(server, "/solve").statusCode());
+            assertEquals(405, post(server, "/metrics", "").statusCode());
+        }
+    }
+
+    HttpResponse<String> get(SolveServer server, String path) throws IOException, InterruptedException {
+        var request = HttpRequest.newBuilder(URI.create("http://127.0.0.1:" + server.port() + path)).GET().build();
+        return client.send(request, HttpResponse.BodyHandlers.ofString());
+    }
+
+    HttpResponse<String> post(SolveServer server, String path, String body) throws IOException, InterruptedException {
+        var request = HttpRequest.newBuilder(URI.create("http://127.0.0.1:" + server.port() + path))
+                .POST(HttpRequest.BodyPublishers.ofString(body))
+                .build();
+        return client.send(request, HttpResponse.BodyHandlers.ofString());
+    }
+}
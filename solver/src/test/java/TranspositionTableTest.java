@@ -0,0 +1,27 @@
+import org.junit.jupiter.api.Test;
+import solver.TranspositionTable;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TranspositionTableTest {
+    TranspositionTable table = new TranspositionTable(100);
+
+    @Test
+    public void test_storeAndProbe() {
+        assertEquals(128, table.capacity());
+        assertEquals(TranspositionTable.MISSING, table.probe(0));
+        assertEquals(TranspositionTable.MISSING, table.probe(42));
+
+        var entry = TranspositionTable.entry(30, 7);
+        table.store(42, entry);
+        assertEquals(entry, table.probe(42));
+        assertEquals(30, TranspositionTable.boundOf(entry));
+        assertEquals(7, TranspositionTable.depthOf(entry));
+        assertEquals(TranspositionTable.MISSING, table.probe(42 + 128));
+
+        table.store(42 + 128, TranspositionTable.entry(31, 1));
+        assertEquals(TranspositionTable.MISSING, table.probe(42));
+        table.clear();
+        assertEquals(TranspositionTable.MISSING, table.probe(42 + 128));
+    }
+}